@@ -15,6 +15,7 @@ group = "io.github.mattidragon"
 base.archivesName = "TLA-Api"
 
 repositories {
+    mavenCentral()
     maven("https://maven.shedaniel.me/")
     maven("https://maven.terraformersmc.com/")
 }
@@ -90,6 +91,39 @@ arrayOf("rei", "emi").forEach { name ->
     }
 }
 
+// Benchmarks run inside a dev client with both recipe viewers loaded, as most of the code needs bootstrapped registries and mixins
+val jmh = sourceSets.create("jmh") {
+    arrayOf(sourceSets.main, sourceSets.client, sourceSets["rei"], sourceSets["emi"]).forEach {
+        compileClasspath += it.compileClasspath + it.output
+        runtimeClasspath += it.runtimeClasspath + it.output
+    }
+}
+
+loom {
+    createRemapConfigurations(jmh)
+    mods.create("tlaapi_jmh").sourceSet(jmh)
+
+    runs.register("benchmark") {
+        inherit(runs["client"])
+        ideConfigGenerated(true)
+        configName = "Benchmarks"
+        runDir("run/jmh")
+        source(jmh)
+    }
+}
+
+// Tests run on the junit platform through fabric loader, which allows bootstrapping registries without starting the game
+sourceSets.named("test") {
+    arrayOf(sourceSets.main, sourceSets.client, sourceSets["rei"], sourceSets["emi"]).forEach {
+        compileClasspath += it.compileClasspath + it.output
+        runtimeClasspath += it.runtimeClasspath + it.output
+    }
+}
+
+tasks.test {
+    useJUnitPlatform()
+}
+
 dependencies {
     fun Provider<MinimalExternalModuleDependency>.withClassifier(classifier: String) = variantOf(this) { this.classifier(classifier) }
 
@@ -108,6 +142,11 @@ dependencies {
 
     add("modEmiCompileOnly", libs.emi.withClassifier("api"))
     add("modEmiRuntimeOnly", libs.emi)
+
+    add("jmhImplementation", libs.jmh.core)
+    add("jmhAnnotationProcessor", libs.jmh.generator)
+
+    testImplementation(libs.fabric.loader.junit)
 }
 
 configurations.all {
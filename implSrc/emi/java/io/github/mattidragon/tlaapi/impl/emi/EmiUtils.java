@@ -24,7 +24,7 @@ public class EmiUtils {
         } else {
             throw new IllegalArgumentException("Unknown stack type: " + stack.getClass().getName());
         }
-        stack.getChance().ifPresent(chance -> emiStack.setChance((float) chance));
+        if (stack.hasChance()) emiStack.setChance((float) stack.getRawChance());
         return emiStack;
     }
 
@@ -8,12 +8,12 @@ import dev.emi.emi.api.stack.EmiIngredient;
 import dev.emi.emi.api.widget.Bounds;
 import io.github.mattidragon.tlaapi.api.StackDragHandler;
 import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
-import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
-import io.github.mattidragon.tlaapi.api.plugin.PluginLoader;
 import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
 import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
 import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
 import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.PluginAwareContext;
+import io.github.mattidragon.tlaapi.impl.TlaApi;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
@@ -22,26 +22,46 @@ import net.minecraft.inventory.Inventory;
 import net.minecraft.recipe.Recipe;
 import net.minecraft.recipe.RecipeEntry;
 import net.minecraft.recipe.RecipeType;
+import net.minecraft.util.Util;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class TlaApiEmiPlugin implements EmiPlugin {
     @Override
     public void register(EmiRegistry registry) {
-        PluginLoader.loadPlugins(new EmiImplementation(registry));
+        // EMI runs generators as they are registered, so everything except derived generators is done once loading returns
+        var implementation = new EmiImplementation(registry);
+        var session = TlaApi.loadPlugins(implementation);
+        session.runDerivedGenerators(MinecraftClient.getInstance(), implementation::getRecipes, recipe -> implementation.addRecipe(implementation.convert(recipe)));
+        session.finish();
     }
 
-    private static final class EmiImplementation implements PluginContext {
+    private static final class EmiImplementation implements PluginAwareContext {
+        private static final int BATCH_SIZE = 256;
+
         private final EmiRegistry registry;
         private final Map<TlaCategory, EmiRecipeCategory> categories = new HashMap<>();
+        // Kept for derived generators, as emi doesn't provide the recipes of a category while registering
+        private final Map<TlaCategory, List<TlaRecipe>> recipes = new HashMap<>();
+        private boolean parallelSafe = true;
 
         private EmiImplementation(EmiRegistry registry) {
             this.registry = registry;
         }
 
+        @Override
+        public void beginPlugin(String pluginId, boolean parallelSafe) {
+            this.parallelSafe = parallelSafe;
+        }
+
         @Override
         public void addCategory(TlaCategory category) {
             var emiCategory = new TlaEmiRecipeCategory(category);
@@ -61,20 +81,76 @@ public class TlaApiEmiPlugin implements EmiPlugin {
         @SuppressWarnings("unchecked") // For some reason RecipeManager needs an inventory generic, which we don't have but don't need either
         @Override
         public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
-            registry.getRecipeManager()
-                    .listAllOfType((RecipeType<Recipe<Inventory>>) type)
-                    .forEach(recipe -> {
-                        var tlaRecipe = generator.apply((RecipeEntry<T>) recipe);
-                        var emiRecipe = new TlaEmiRecipe(tlaRecipe, categories.get(tlaRecipe.getCategory()));
-                        registry.addRecipe(emiRecipe);
-                    });
+            var recipes = registry.getRecipeManager().listAllOfType((RecipeType<Recipe<Inventory>>) type);
+            addRecipes(recipes, (entry, sink) -> {
+                var recipe = generator.apply((RecipeEntry<T>) entry);
+                if (recipe != null) sink.accept(recipe);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+            var recipes = registry.getRecipeManager().listAllOfType((RecipeType<Recipe<Inventory>>) type);
+            addRecipes(recipes, (recipe, sink) -> generator.accept((RecipeEntry<T>) recipe, sink));
         }
 
         @Override
         public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
-            for (var tlaRecipe : generator.apply(MinecraftClient.getInstance())) {
-                var emiRecipe = new TlaEmiRecipe(tlaRecipe, categories.get(tlaRecipe.getCategory()));
-                registry.addRecipe(emiRecipe);
+            addRecipes(generator.apply(MinecraftClient.getInstance()), (recipe, sink) -> sink.accept(recipe));
+        }
+
+        @Override
+        public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+            generator.accept(MinecraftClient.getInstance(), recipe -> addRecipe(convert(recipe)));
+        }
+
+        private TlaEmiRecipe convert(TlaRecipe recipe) {
+            return new TlaEmiRecipe(recipe, categories.get(recipe.getCategory()));
+        }
+
+        private void addRecipe(TlaEmiRecipe recipe) {
+            registry.addRecipe(recipe);
+            recipes.computeIfAbsent(recipe.getUnderlying().getCategory(), category -> new ArrayList<>()).add(recipe.getUnderlying());
+        }
+
+        private List<TlaRecipe> getRecipes(TlaCategory category) {
+            return recipes.getOrDefault(category, List.of());
+        }
+
+        /**
+         * Generates recipes from the sources, converts them into emi recipes and adds them to the registry in order.
+         * Each source may generate any number of recipes.
+         * With parallel loading enabled the generation and conversion is split into batches that run on the worker pool,
+         * while the registry is only ever touched from the calling thread.
+         * Generators of plugins that aren't parallel safe always run on the calling thread.
+         */
+        private <S> void addRecipes(List<S> sources, BiConsumer<S, Consumer<TlaRecipe>> generator) {
+            if (!TlaApi.PARALLEL_LOADING || !parallelSafe || sources.size() <= BATCH_SIZE) {
+                for (var source : sources) {
+                    generator.accept(source, recipe -> addRecipe(convert(recipe)));
+                }
+                return;
+            }
+
+            var batches = new ArrayList<CompletableFuture<List<TlaEmiRecipe>>>();
+            for (int start = 0; start < sources.size(); start += BATCH_SIZE) {
+                var batch = sources.subList(start, Math.min(start + BATCH_SIZE, sources.size()));
+                batches.add(CompletableFuture.supplyAsync(() -> {
+                    var converted = new ArrayList<TlaEmiRecipe>();
+                    for (var source : batch) {
+                        generator.accept(source, recipe -> converted.add(convert(recipe)));
+                    }
+                    return converted;
+                }, Util.getMainWorkerExecutor()));
+            }
+            for (var batch : batches) {
+                try {
+                    batch.join().forEach(this::addRecipe);
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) throw cause;
+                    throw e;
+                }
             }
         }
 
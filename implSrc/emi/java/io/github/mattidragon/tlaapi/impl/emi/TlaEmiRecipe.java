@@ -11,13 +11,24 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
+/**
+ * Wraps a tla recipe for EMI.
+ * The converted ingredients and stacks are computed once on construction, as EMI queries them many times while indexing.
+ * A new wrapper is created for every recipe on each EMI reload, so the cached values never outlive the recipe they came from.
+ */
 public class TlaEmiRecipe implements EmiRecipe {
     private final TlaRecipe recipe;
     private final EmiRecipeCategory category;
+    private final List<EmiIngredient> inputs;
+    private final List<EmiIngredient> catalysts;
+    private final List<EmiStack> outputs;
 
     public TlaEmiRecipe(TlaRecipe recipe, EmiRecipeCategory category) {
         this.recipe = recipe;
         this.category = category;
+        this.inputs = recipe.getInputs().stream().map(EmiUtils::convertIngredient).toList();
+        this.catalysts = recipe.getCatalysts().stream().map(EmiUtils::convertIngredient).toList();
+        this.outputs = recipe.getOutputs().stream().map(EmiUtils::convertStack).toList();
     }
 
     public TlaRecipe getUnderlying() {
@@ -36,17 +47,17 @@ public class TlaEmiRecipe implements EmiRecipe {
 
     @Override
     public List<EmiIngredient> getInputs() {
-        return recipe.getInputs().stream().map(EmiUtils::convertIngredient).toList();
+        return inputs;
     }
 
     @Override
     public List<EmiIngredient> getCatalysts() {
-        return recipe.getCatalysts().stream().map(EmiUtils::convertIngredient).toList();
+        return catalysts;
     }
 
     @Override
     public List<EmiStack> getOutputs() {
-        return recipe.getOutputs().stream().map(EmiUtils::convertStack).toList();
+        return outputs;
     }
 
     @Override
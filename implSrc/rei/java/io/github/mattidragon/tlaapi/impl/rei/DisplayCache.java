@@ -0,0 +1,209 @@
+package io.github.mattidragon.tlaapi.impl.rei;
+
+import com.google.common.hash.HashCode;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.TlaApi;
+import io.github.mattidragon.tlaapi.impl.snapshot.RecipeFingerprint;
+import me.shedaniel.rei.api.common.category.CategoryIdentifier;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Keeps the displays of the previous REI reload so that unchanged ones can be reused.
+ * <p>
+ * Displays generated from recipes are tracked per recipe type and reused as long as the recipes of that type, the registries and tags are unchanged.
+ * Displays of custom generators can depend on anything, so they're only reused if no recipe of any type changed.
+ * Any display is dropped if its category is no longer registered or if the plugins owning the generators changed.
+ * Plugins are registered again on every reload, so generators are assumed to produce the same output for the same recipes.
+ * <p>
+ * Displays are cached before recipe filters and duplicate removal, which are applied to every display on its way out, reused or not.
+ * Only enabled using the {@code tla-api.reuseDisplays} system property, as it relies on generators being deterministic.
+ */
+public class DisplayCache {
+    public static final boolean ENABLED = Boolean.getBoolean("tla-api.reuseDisplays");
+
+    private Map<RecipeType<?>, Generation> recipeDisplays = new IdentityHashMap<>();
+    private List<List<TlaDisplay>> customDisplays = List.of();
+    private List<String> customGenerators = List.of();
+    private @Nullable HashCode registriesHash;
+    private @Nullable HashCode recipesHash;
+
+    private final Map<RecipeType<?>, Generation> nextRecipeDisplays = new IdentityHashMap<>();
+    private final List<List<TlaDisplay>> nextCustomDisplays = new ArrayList<>();
+    private boolean customDisplaysValid = false;
+    private final AtomicInteger reused = new AtomicInteger();
+
+    /**
+     * Compares the current recipes with the previous reload and drops every display that may have changed.
+     * Does nothing if disabled, in which case every display is generated again.
+     * @param categories The identifiers of all categories registered in this reload.
+     * @param generators The owners of the recipe and multi-recipe generators registered for each recipe type in this reload, in registration order.
+     * @param customGenerators The owners of the custom generators registered in this reload, in registration order.
+     */
+    public void begin(Set<CategoryIdentifier<?>> categories, Map<RecipeType<?>, List<String>> generators, List<String> customGenerators) {
+        nextRecipeDisplays.clear();
+        nextCustomDisplays.clear();
+        reused.set(0);
+        customDisplaysValid = false;
+        if (!ENABLED) return;
+
+        var handler = MinecraftClient.getInstance().getNetworkHandler();
+        var recipeHashes = handler == null ? null : RecipeFingerprint.hashRecipesByType(handler.getRecipeManager(), handler.getRegistryManager());
+        if (recipeHashes == null) {
+            // Without hashes nothing can be compared, so everything is regenerated and nothing is kept for the next reload
+            recipeDisplays = new IdentityHashMap<>();
+            customDisplays = List.of();
+            this.customGenerators = List.of();
+            registriesHash = null;
+            recipesHash = null;
+            return;
+        }
+
+        var newRegistriesHash = RecipeFingerprint.hashRegistries();
+        var newRecipesHash = RecipeFingerprint.combine(recipeHashes);
+        var registriesValid = newRegistriesHash.equals(registriesHash);
+        customDisplaysValid = registriesValid && newRecipesHash.equals(recipesHash) && this.customGenerators.equals(customGenerators)
+                && customDisplays.stream().flatMap(List::stream).allMatch(display -> categories.contains(display.getCategoryIdentifier()));
+
+        recipeHashes.forEach((type, hash) -> {
+            var owners = generators.getOrDefault(type, List.of());
+            var previous = recipeDisplays.get(type);
+            if (registriesValid && previous != null && previous.hash.equals(hash) && previous.generators.equals(owners) && previous.isValid(categories)) {
+                nextRecipeDisplays.put(type, previous);
+            } else {
+                nextRecipeDisplays.put(type, new Generation(hash, owners));
+            }
+        });
+
+        registriesHash = newRegistriesHash;
+        recipesHash = newRecipesHash;
+        this.customGenerators = List.copyOf(customGenerators);
+    }
+
+    /**
+     * Returns the display for the recipe, reusing the one from the previous reload if possible.
+     * Safe to call from multiple threads.
+     * @param filter Checked for every display before it's returned, including reused ones.
+     */
+    public @Nullable TlaDisplay getDisplay(RecipeEntry<?> entry, Function<RecipeEntry<?>, @Nullable TlaDisplay> generator, Predicate<TlaRecipe> filter) {
+        var display = getCachedDisplay(entry, generator);
+        return display == null || filter.test(display.getRecipe()) ? display : null;
+    }
+
+    private @Nullable TlaDisplay getCachedDisplay(RecipeEntry<?> entry, Function<RecipeEntry<?>, @Nullable TlaDisplay> generator) {
+        var generation = nextRecipeDisplays.get(entry.value().getType());
+        if (generation == null) return generator.apply(entry);
+
+        var cached = generation.displays.get(entry.id());
+        if (cached != null) {
+            reused.incrementAndGet();
+            return cached.orElse(null);
+        }
+        var display = Optional.ofNullable(generator.apply(entry));
+        generation.displays.putIfAbsent(entry.id(), display);
+        return display.orElse(null);
+    }
+
+    /**
+     * Passes the displays for the recipe from the multi-recipe generator with the given index to the sink, reusing the ones from the previous reload if possible.
+     * @param index The index of the generator among the multi-recipe generators registered for the type of the recipe.
+     * @param filter Checked for every display before it's passed to the sink, including reused ones.
+     */
+    public void addDisplays(RecipeEntry<?> entry, int index, Function<RecipeEntry<?>, List<TlaDisplay>> generator, Predicate<TlaRecipe> filter, Consumer<TlaDisplay> sink) {
+        var filtered = filter(filter, sink);
+        var generation = nextRecipeDisplays.get(entry.value().getType());
+        if (generation == null) {
+            generator.apply(entry).forEach(filtered);
+            return;
+        }
+
+        var displays = generation.multiDisplays.computeIfAbsent(index, i -> new ConcurrentHashMap<>());
+        var cached = displays.get(entry.id());
+        if (cached != null) {
+            reused.addAndGet(cached.size());
+            cached.forEach(filtered);
+            return;
+        }
+        var generated = List.copyOf(generator.apply(entry));
+        displays.putIfAbsent(entry.id(), generated);
+        generated.forEach(filtered);
+    }
+
+    /**
+     * Passes the displays of the custom generator with the given index to the sink, reusing the ones from the previous reload if possible.
+     * New displays are passed on as the generator produces them.
+     * @param filter Checked for every display before it's passed to the sink, including reused ones.
+     */
+    public void addCustomDisplays(int index, MinecraftClient client, BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator, Function<TlaRecipe, TlaDisplay> mapper, Predicate<TlaRecipe> filter, Consumer<TlaDisplay> sink) {
+        if (!ENABLED) {
+            generator.accept(client, recipe -> {
+                if (filter.test(recipe)) sink.accept(mapper.apply(recipe));
+            });
+            return;
+        }
+        var filtered = filter(filter, sink);
+        if (customDisplaysValid) {
+            var displays = customDisplays.get(index);
+            reused.addAndGet(displays.size());
+            displays.forEach(filtered);
+            nextCustomDisplays.add(displays);
+            return;
+        }
+
+        var displays = new ArrayList<TlaDisplay>();
+        generator.accept(client, recipe -> {
+            var display = mapper.apply(recipe);
+            displays.add(display);
+            filtered.accept(display);
+        });
+        nextCustomDisplays.add(displays);
+    }
+
+    private static Consumer<TlaDisplay> filter(Predicate<TlaRecipe> filter, Consumer<TlaDisplay> sink) {
+        return display -> {
+            if (filter.test(display.getRecipe())) sink.accept(display);
+        };
+    }
+
+    /**
+     * Keeps the displays of this reload for the next one.
+     */
+    public void end() {
+        if (!ENABLED) return;
+        recipeDisplays = new IdentityHashMap<>(nextRecipeDisplays);
+        customDisplays = List.copyOf(nextCustomDisplays);
+        nextRecipeDisplays.clear();
+        nextCustomDisplays.clear();
+        if (reused.get() > 0) {
+            TlaApi.LOGGER.info("Reused {} unchanged REI displays", reused.get());
+        }
+    }
+
+    private static final class Generation {
+        private final HashCode hash;
+        private final List<String> generators;
+        private final Map<Identifier, Optional<TlaDisplay>> displays = new ConcurrentHashMap<>();
+        private final Map<Integer, Map<Identifier, List<TlaDisplay>>> multiDisplays = new ConcurrentHashMap<>();
+
+        private Generation(HashCode hash, List<String> generators) {
+            this.hash = hash;
+            this.generators = List.copyOf(generators);
+        }
+
+        private boolean isValid(Set<CategoryIdentifier<?>> categories) {
+            return displays.values().stream().flatMap(Optional::stream).allMatch(display -> categories.contains(display.getCategoryIdentifier()))
+                    && multiDisplays.values().stream().flatMap(map -> map.values().stream()).flatMap(List::stream).allMatch(display -> categories.contains(display.getCategoryIdentifier()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.mattidragon.tlaapi.impl.rei;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Recipe generators indexed by the recipe type they handle.
+ * The display filler runs for every recipe in the game, so each lookup is a single identity map access.
+ * If several generators are registered for the same type, the first one is used.
+ * A new index is created for every reload, so generators of earlier loads are never kept.
+ */
+public class RecipeGeneratorIndex {
+    private final Map<RecipeType<?>, Function<RecipeEntry<?>, TlaRecipe>> generators = new IdentityHashMap<>();
+
+    public <T extends Recipe<?>> void add(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        // The filler only passes entries of the matching type, so the cast is safe
+        generators.putIfAbsent(type, entry -> generator.apply(unsafeCast(entry)));
+    }
+
+    public boolean handles(RecipeEntry<?> entry) {
+        return generators.containsKey(entry.value().getType());
+    }
+
+    public @Nullable TlaRecipe generate(RecipeEntry<?> entry) {
+        var generator = generators.get(entry.value().getType());
+        if (generator == null) return null;
+        return generator.apply(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unsafeCast(Object o) {
+        return (T) o;
+    }
+}
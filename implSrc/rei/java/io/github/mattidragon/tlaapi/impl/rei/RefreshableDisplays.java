@@ -0,0 +1,97 @@
+package io.github.mattidragon.tlaapi.impl.rei;
+
+import dev.architectury.event.EventResult;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import me.shedaniel.rei.api.client.registry.display.DisplayCategory;
+import me.shedaniel.rei.api.client.registry.display.DisplayRegistry;
+import me.shedaniel.rei.api.client.registry.display.visibility.DisplayVisibilityPredicate;
+import me.shedaniel.rei.api.common.category.CategoryIdentifier;
+import me.shedaniel.rei.api.common.display.Display;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Displays of refreshable generators from a single reload.
+ * REI allows adding displays after reloading, but not removing them, so refreshing adds the new displays of the generator and hides the previous ones.
+ * Only the current displays are tracked, and any other display of a refreshable generator is hidden, so refreshing often doesn't leak memory beyond what REI itself keeps.
+ * The visibility predicate may be queried from any thread.
+ * Handles stop working once the displays are {@link #invalidate() invalidated} by the next reload.
+ */
+public class RefreshableDisplays implements DisplayVisibilityPredicate {
+    private final List<Generator> generators = new ArrayList<>();
+    private final Set<RefreshedDisplay> visible = ConcurrentHashMap.newKeySet();
+    private volatile boolean valid = true;
+
+    public GeneratorHandle add(Supplier<List<TlaRecipe>> generator, Function<TlaRecipe, CategoryIdentifier<?>> categories) {
+        var refreshable = new Generator(generator, categories);
+        generators.add(refreshable);
+        return refreshable;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Runs every generator and adds their displays.
+     */
+    public void register(DisplayRegistry registry) {
+        registry.registerVisibilityPredicate(this);
+        for (var generator : generators) {
+            generator.displays = generator.generate();
+            visible.addAll(generator.displays);
+            generator.displays.forEach(registry::add);
+        }
+    }
+
+    @Override
+    public EventResult handleDisplay(DisplayCategory<?> category, Display display) {
+        return display instanceof RefreshedDisplay refreshed && !visible.contains(refreshed) ? EventResult.interruptFalse() : EventResult.pass();
+    }
+
+    /**
+     * A display created by a refreshable generator. Compared by identity, so every refresh creates new ones.
+     */
+    private static final class RefreshedDisplay extends TlaDisplay {
+        private RefreshedDisplay(CategoryIdentifier<?> category, TlaRecipe recipe) {
+            super(category, recipe);
+        }
+    }
+
+    private final class Generator implements GeneratorHandle {
+        private final Supplier<List<TlaRecipe>> generator;
+        private final Function<TlaRecipe, CategoryIdentifier<?>> categories;
+        private List<RefreshedDisplay> displays = List.of();
+
+        private Generator(Supplier<List<TlaRecipe>> generator, Function<TlaRecipe, CategoryIdentifier<?>> categories) {
+            this.generator = generator;
+            this.categories = categories;
+        }
+
+        private List<RefreshedDisplay> generate() {
+            return generator.get().stream().map(recipe -> new RefreshedDisplay(categories.apply(recipe), recipe)).toList();
+        }
+
+        @Override
+        public boolean refresh() {
+            if (!MinecraftClient.getInstance().isOnThread()) throw new IllegalStateException("Generators must be refreshed on the client thread");
+            if (!valid) return false;
+
+            var newDisplays = generate();
+            // The new displays become visible before the previous ones are hidden, so that there's no gap
+            visible.addAll(newDisplays);
+            displays.forEach(visible::remove);
+            displays = newDisplays;
+            var registry = DisplayRegistry.getInstance();
+            newDisplays.forEach(registry::add);
+            return true;
+        }
+    }
+}
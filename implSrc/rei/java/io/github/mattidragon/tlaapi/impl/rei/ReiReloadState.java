@@ -0,0 +1,46 @@
+package io.github.mattidragon.tlaapi.impl.rei;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.rei.util.TlaDragHandler;
+import io.github.mattidragon.tlaapi.impl.rei.util.TlaExclusionZoneProvider;
+import io.github.mattidragon.tlaapi.impl.rei.util.TlaScreenSizeProvider;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Everything registered by plugins during a single REI reload.
+ * A new state is created for every reload and the previous one is discarded as a whole, so nothing registered by plugins outlives the reload it belongs to.
+ */
+final class ReiReloadState {
+    final Map<TlaCategory, TlaDisplayCategory> categories = new HashMap<>();
+    final Multimap<TlaDisplayCategory, TlaIngredient> workstations = HashMultimap.create();
+    final RecipeGeneratorIndex recipeGenerators = new RecipeGeneratorIndex();
+    final Map<RecipeType<?>, List<BiConsumer<RecipeEntry<?>, Consumer<TlaRecipe>>>> multiRecipeGenerators = new LinkedHashMap<>();
+    final List<BiConsumer<MinecraftClient, Consumer<TlaRecipe>>> customGenerators = new ArrayList<>();
+    // The plugins owning the generators above, used to tell whether displays of the previous reload can be reused
+    final Map<RecipeType<?>, List<String>> recipeGeneratorOwners = new IdentityHashMap<>();
+    final List<String> customGeneratorOwners = new ArrayList<>();
+    final RefreshableDisplays refreshableDisplays = new RefreshableDisplays();
+    final List<DynamicRecipeGenerator> dynamicGenerators = new ArrayList<>();
+    final List<TlaDragHandler<?>> stackDragHandlers = new ArrayList<>();
+    final List<TlaScreenSizeProvider<?>> screenSizeProviders = new ArrayList<>();
+    final List<TlaExclusionZoneProvider<?>> exclusionZoneProviders = new ArrayList<>();
+    final List<TlaApiReiPlugin.ClickAreaTuple<?>> clickAreas = new ArrayList<>();
+
+    /**
+     * Called when the state is replaced. Invalidates anything handed out to plugins that could still reference it.
+     */
+    void discard() {
+        refreshableDisplays.invalidate();
+    }
+}
@@ -1,15 +1,17 @@
 package io.github.mattidragon.tlaapi.impl.rei;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import io.github.mattidragon.tlaapi.api.StackDragHandler;
 import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
 import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
-import io.github.mattidragon.tlaapi.api.plugin.PluginLoader;
 import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
 import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
 import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
 import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.LoadSession;
+import io.github.mattidragon.tlaapi.impl.ReusingPluginContext;
+import io.github.mattidragon.tlaapi.impl.TlaApi;
 import io.github.mattidragon.tlaapi.impl.rei.util.TlaDragHandler;
 import io.github.mattidragon.tlaapi.impl.rei.util.TlaExclusionZoneProvider;
 import io.github.mattidragon.tlaapi.impl.rei.util.TlaScreenSizeProvider;
@@ -20,79 +22,159 @@ import me.shedaniel.rei.api.client.registry.display.DisplayRegistry;
 import me.shedaniel.rei.api.client.registry.screen.ExclusionZones;
 import me.shedaniel.rei.api.client.registry.screen.ScreenRegistry;
 import me.shedaniel.rei.api.client.registry.screen.SimpleClickArea;
+import me.shedaniel.rei.api.common.category.CategoryIdentifier;
 import me.shedaniel.rei.api.common.plugins.PluginManager;
 import me.shedaniel.rei.api.common.registry.ReloadStage;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.inventory.Inventory;
 import net.minecraft.recipe.Recipe;
 import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
 import net.minecraft.recipe.RecipeType;
 import net.minecraft.screen.ScreenHandler;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
-public class TlaApiReiPlugin implements REIClientPlugin, PluginContext {
-    private final Map<TlaCategory, TlaDisplayCategory> categories = new HashMap<>();
-    private final Multimap<TlaDisplayCategory, TlaIngredient> workstations = HashMultimap.create();
-    private final List<RecipeGenerator<?>> recipeGenerators = new ArrayList<>();
-    private final List<Function<MinecraftClient, List<TlaRecipe>>> customGenerators = new ArrayList<>();
-    private final List<TlaDragHandler<?>> stackDragHandlers = new ArrayList<>();
-    private final List<TlaScreenSizeProvider<?>> screenSizeProviders = new ArrayList<>();
-    private final List<TlaExclusionZoneProvider<?>> exclusionZoneProviders = new ArrayList<>();
-    private final List<ClickAreaTuple<?>> clickAreas = new ArrayList<>();
+public class TlaApiReiPlugin implements REIClientPlugin, ReusingPluginContext {
+    private final DisplayCache displayCache = new DisplayCache();
+    private ReiReloadState state = new ReiReloadState();
+    private @Nullable LoadSession session;
+    private String currentPlugin = "unknown";
 
     @Override
     public void preStage(PluginManager<REIClientPlugin> manager, ReloadStage stage) {
         // REI doesn't have a good reload start event, so we have to do this
         if (stage == ReloadStage.START && manager == PluginManager.getClientInstance()) {
-            categories.clear();
-            recipeGenerators.clear();
-            customGenerators.clear();
-            stackDragHandlers.clear();
-            screenSizeProviders.clear();
-            exclusionZoneProviders.clear();
-            clickAreas.clear();
-            PluginLoader.loadPlugins(this);
+            beginReload();
         }
     }
 
+    @Override
+    public void postStage(PluginManager<REIClientPlugin> manager, ReloadStage stage) {
+        // Fillers run after registerDisplays, so the session and display cache can only be finished once the whole reload is done
+        if (stage == ReloadStage.END && manager == PluginManager.getClientInstance()) {
+            endReload();
+        }
+    }
+
+    void beginReload() {
+        state.discard();
+        state = new ReiReloadState();
+        session = TlaApi.loadPlugins(this);
+    }
+
+    void endReload() {
+        displayCache.end();
+        if (session != null) {
+            // REI allows adding displays after reloading, so derived generators can read the displays of fillers
+            session.runDerivedGenerators(MinecraftClient.getInstance(), category -> getRecipes(DisplayRegistry.getInstance(), category), recipe -> DisplayRegistry.getInstance().add(mapRecipe(recipe)));
+            session.finish();
+            session = null;
+        }
+    }
+
+    ReiReloadState getState() {
+        return state;
+    }
+
     @Override
     public void registerCategories(CategoryRegistry registry) {
-        registry.add(Collections.unmodifiableCollection(categories.values()));
-        workstations.forEach((category, workstation) -> registry.addWorkstations(category.getCategoryIdentifier(), ReiUtil.convertIngredient(workstation)));
+        timePhase("registerCategories", () -> {
+            registry.add(Collections.unmodifiableCollection(state.categories.values()));
+            state.workstations.forEach((category, workstation) -> registry.addWorkstations(category.getCategoryIdentifier(), ReiUtil.convertIngredient(workstation)));
+        });
     }
 
     @Override
     public void registerDisplays(DisplayRegistry registry) {
-        // This is generic soup due to javas type system limitations
-        // We need an unsafe cast so that we can use the generator function after checking the recipe type
-        registry.registerFiller(RecipeEntry.class,
-                entry -> recipeGenerators.stream().anyMatch(generator -> generator.type == entry.value().getType()),
-                entry -> recipeGenerators.stream()
-                        .filter(generator -> generator.type == entry.value().getType())
-                        .findFirst()
-                        .map(generator -> generator.generator.apply(unsafeCast(entry)))
-                        .map(this::mapRecipe)
-                        .orElse(null));
-
-        for (var generator : customGenerators) {
-            for (var tlaRecipe : generator.apply(MinecraftClient.getInstance())) {
-                registry.add(mapRecipe(tlaRecipe));
+        timePhase("registerDisplays", () -> {
+            var categoryIds = new HashSet<CategoryIdentifier<?>>();
+            state.categories.values().forEach(category -> categoryIds.add(category.getCategoryIdentifier()));
+            displayCache.begin(categoryIds, state.recipeGeneratorOwners, state.customGeneratorOwners);
+
+            registry.registerFiller(RecipeEntry.class, state.recipeGenerators::handles, entry -> displayCache.getDisplay(entry, this::generateDisplay, this::keep));
+
+            // REI fillers produce a single display per object, so these read their recipes directly. Each type is still only listed once.
+            var handler = MinecraftClient.getInstance().getNetworkHandler();
+            if (handler != null) {
+                state.multiRecipeGenerators.forEach((type, generators) -> addMultiRecipeDisplays(registry, handler.getRecipeManager(), type, generators));
+            }
+
+            for (int i = 0; i < state.customGenerators.size(); i++) {
+                displayCache.addCustomDisplays(i, MinecraftClient.getInstance(), state.customGenerators.get(i), this::mapRecipe, this::keep, registry::add);
             }
+
+            state.refreshableDisplays.register(registry);
+
+            for (var generator : state.dynamicGenerators) {
+                registry.registerGlobalDisplayGenerator(new TlaDisplayGenerator(generator, this::mapRecipe));
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked") // For some reason RecipeManager needs an inventory generic, which we don't have but don't need either
+    private void addMultiRecipeDisplays(DisplayRegistry registry, RecipeManager recipeManager, RecipeType<?> type, List<BiConsumer<RecipeEntry<?>, Consumer<TlaRecipe>>> generators) {
+        for (var entry : recipeManager.listAllOfType((RecipeType<Recipe<Inventory>>) type)) {
+            for (int i = 0; i < generators.size(); i++) {
+                var generator = generators.get(i);
+                displayCache.addDisplays(entry, i, recipe -> {
+                    var displays = new ArrayList<TlaDisplay>();
+                    generator.accept(recipe, tlaRecipe -> displays.add(mapRecipe(tlaRecipe)));
+                    return displays;
+                }, this::keep, registry::add);
+            }
+        }
+    }
+
+    // Generators are only passed unfiltered when reusing recipes, see ReusingPluginContext
+    private boolean keep(TlaRecipe recipe) {
+        return !isReusingRecipes() || session == null || session.keep(recipe);
+    }
+
+    private @Nullable TlaDisplay generateDisplay(RecipeEntry<?> entry) {
+        var tlaRecipe = state.recipeGenerators.generate(entry);
+        return tlaRecipe == null ? null : mapRecipe(tlaRecipe);
+    }
+
+    private List<TlaRecipe> getRecipes(DisplayRegistry registry, TlaCategory category) {
+        var reiCategory = state.categories.get(category);
+        if (reiCategory == null) return List.of();
+        var recipes = new ArrayList<TlaRecipe>();
+        for (var display : registry.get(reiCategory.getCategoryIdentifier())) {
+            if (display instanceof TlaDisplay tlaDisplay) recipes.add(tlaDisplay.getRecipe());
         }
+        return recipes;
     }
 
     private TlaDisplay mapRecipe(TlaRecipe recipe) {
-        return new TlaDisplay(categories.get(recipe.getCategory()).getCategoryIdentifier(), recipe);
+        return new TlaDisplay(getCategoryIdentifier(recipe), recipe);
+    }
+
+    private CategoryIdentifier<?> getCategoryIdentifier(TlaRecipe recipe) {
+        return state.categories.get(recipe.getCategory()).getCategoryIdentifier();
     }
 
     @Override
     public void registerScreens(ScreenRegistry registry) {
-        stackDragHandlers.forEach(registry::registerDraggableStackVisitor);
-        screenSizeProviders.forEach(registry::registerDecider);
-        clickAreas.forEach(tuple -> registerClickArea(registry, tuple));
+        timePhase("registerScreens", () -> {
+            state.stackDragHandlers.forEach(registry::registerDraggableStackVisitor);
+            state.screenSizeProviders.forEach(registry::registerDecider);
+            state.clickAreas.forEach(tuple -> registerClickArea(registry, tuple));
+        });
+    }
+
+    private void timePhase(String phase, Runnable action) {
+        if (session == null) {
+            action.run();
+        } else {
+            session.time(phase, action);
+        }
     }
 
     private <T extends Screen> void registerClickArea(ScreenRegistry registry, ClickAreaTuple<T> tuple) {
@@ -108,64 +190,104 @@ public class TlaApiReiPlugin implements REIClientPlugin, PluginContext {
             //noinspection unchecked
             registry.registerContainerClickArea((SimpleClickArea<HandledScreen<ScreenHandler>>) clickArea,
                     (Class<HandledScreen<ScreenHandler>>) tuple.clazz(),
-                    categories.get(tuple.category()).getCategoryIdentifier());
+                    state.categories.get(tuple.category()).getCategoryIdentifier());
         } else {
-            registry.registerClickArea(clickArea, tuple.clazz(), categories.get(tuple.category()).getCategoryIdentifier());
+            registry.registerClickArea(clickArea, tuple.clazz(), state.categories.get(tuple.category()).getCategoryIdentifier());
         }
     }
 
     @Override
     public void registerExclusionZones(ExclusionZones zones) {
-        exclusionZoneProviders.forEach(provider -> zones.register(provider.clazz, provider));
+        state.exclusionZoneProviders.forEach(provider -> zones.register(provider.clazz, provider));
     }
 
     @Override
     public void addCategory(TlaCategory category) {
-        categories.put(category, new TlaDisplayCategory(category));
+        state.categories.put(category, new TlaDisplayCategory(category));
     }
 
     @Override
     public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
-        var displayCategory = categories.get(category);
+        var displayCategory = state.categories.get(category);
         if (displayCategory == null) throw new IllegalArgumentException("Category " + category + " not registered");
         for (TlaIngredient workstation : workstations) {
-            this.workstations.put(displayCategory, workstation);
+            state.workstations.put(displayCategory, workstation);
         }
     }
 
     @Override
     public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
-        recipeGenerators.add(new RecipeGenerator<>(type, generator));
+        state.recipeGenerators.add(type, generator);
+        state.recipeGeneratorOwners.computeIfAbsent(type, t -> new ArrayList<>()).add("recipe " + currentPlugin);
+    }
+
+    @SuppressWarnings("unchecked") // Only entries of the matching type are ever passed to the generator
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        state.multiRecipeGenerators.computeIfAbsent(type, t -> new ArrayList<>()).add((entry, sink) -> generator.accept((RecipeEntry<T>) entry, sink));
+        state.recipeGeneratorOwners.computeIfAbsent(type, t -> new ArrayList<>()).add("multi " + currentPlugin);
     }
 
     @Override
     public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
-        customGenerators.add(generator);
+        state.customGenerators.add((client, sink) -> generator.apply(client).forEach(sink));
+        state.customGeneratorOwners.add(currentPlugin);
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        state.customGenerators.add(generator);
+        state.customGeneratorOwners.add(currentPlugin);
+    }
+
+    @SuppressWarnings("unchecked") // For some reason RecipeManager needs an inventory generic, which we don't have but don't need either
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        return state.refreshableDisplays.add(() -> {
+            var handler = MinecraftClient.getInstance().getNetworkHandler();
+            if (handler == null) return List.of();
+            var recipes = new ArrayList<TlaRecipe>();
+            for (var entry : handler.getRecipeManager().listAllOfType((RecipeType<Recipe<Inventory>>) type)) {
+                var recipe = generator.apply((RecipeEntry<T>) entry);
+                if (recipe != null) recipes.add(recipe);
+            }
+            return recipes;
+        }, this::getCategoryIdentifier);
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        return state.refreshableDisplays.add(() -> generator.apply(MinecraftClient.getInstance()), this::getCategoryIdentifier);
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        state.dynamicGenerators.add(generator);
     }
 
     @Override
     public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
-        clickAreas.add(new ClickAreaTuple<>(clazz, category, boundsFunction, false));
+        state.clickAreas.add(new ClickAreaTuple<>(clazz, category, boundsFunction, false));
     }
 
     @Override
     public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
-        clickAreas.add(new ClickAreaTuple<>(clazz, category, boundsFunction, true));
+        state.clickAreas.add(new ClickAreaTuple<>(clazz, category, boundsFunction, true));
     }
 
     @Override
     public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
-        stackDragHandlers.add(new TlaDragHandler<>(handler, clazz));
+        state.stackDragHandlers.add(new TlaDragHandler<>(handler, clazz));
     }
 
     @Override
     public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
-        screenSizeProviders.add(new TlaScreenSizeProvider<>(clazz, provider));
+        state.screenSizeProviders.add(new TlaScreenSizeProvider<>(clazz, provider));
     }
 
     @Override
     public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
-        exclusionZoneProviders.add(new TlaExclusionZoneProvider<>(clazz, provider));
+        state.exclusionZoneProviders.add(new TlaExclusionZoneProvider<>(clazz, provider));
     }
 
     @Override
@@ -174,15 +296,19 @@ public class TlaApiReiPlugin implements REIClientPlugin, PluginContext {
     }
 
     @Override
-    public String toString() {
-        return "REI plugin handler";
+    public void beginPlugin(String pluginId, boolean parallelSafe) {
+        currentPlugin = pluginId;
     }
 
-    private record RecipeGenerator<T extends Recipe<?>>(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {}
-    private record ClickAreaTuple<T extends Screen>(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction, boolean handledScreenCoords) {}
+    @Override
+    public boolean isReusingRecipes() {
+        return DisplayCache.ENABLED;
+    }
 
-    @SuppressWarnings("unchecked")
-    private <T> T unsafeCast(Object o) {
-        return (T) o;
+    @Override
+    public String toString() {
+        return "REI plugin handler";
     }
+
+    record ClickAreaTuple<T extends Screen>(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction, boolean handledScreenCoords) {}
 }
@@ -7,23 +7,32 @@ import me.shedaniel.rei.api.common.entry.EntryIngredient;
 
 import java.util.List;
 
+/**
+ * Wraps a tla recipe for REI.
+ * The converted entries are computed once on construction, as REI queries them many times while indexing.
+ * Displays are only reused across REI reloads while their recipe is unchanged, see {@link DisplayCache}, so the cached entries never outlive the recipe they came from.
+ */
 public class TlaDisplay implements Display {
     private final CategoryIdentifier<?> category;
     private final TlaRecipe recipe;
+    private final List<EntryIngredient> inputs;
+    private final List<EntryIngredient> outputs;
 
     public TlaDisplay(CategoryIdentifier<?> category, TlaRecipe recipe) {
         this.category = category;
         this.recipe = recipe;
+        this.inputs = recipe.getInputs().stream().map(ReiUtil::convertIngredient).toList();
+        this.outputs = recipe.getOutputs().stream().map(ReiUtil::convertStack).map(EntryIngredient::of).toList();
     }
 
     @Override
     public List<EntryIngredient> getInputEntries() {
-        return recipe.getInputs().stream().map(ReiUtil::convertIngredient).toList();
+        return inputs;
     }
 
     @Override
     public List<EntryIngredient> getOutputEntries() {
-        return recipe.getOutputs().stream().map(ReiUtil::convertStack).map(EntryIngredient::of).toList();
+        return outputs;
     }
 
     @Override
@@ -0,0 +1,43 @@
+package io.github.mattidragon.tlaapi.impl.rei;
+
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import me.shedaniel.rei.api.client.registry.display.DynamicDisplayGenerator;
+import me.shedaniel.rei.api.common.entry.EntryStack;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Adapts a tla dynamic recipe generator to REI, which queries it whenever a stack is looked up.
+ */
+public class TlaDisplayGenerator implements DynamicDisplayGenerator<TlaDisplay> {
+    private final DynamicRecipeGenerator generator;
+    private final Function<TlaRecipe, TlaDisplay> mapper;
+
+    public TlaDisplayGenerator(DynamicRecipeGenerator generator, Function<TlaRecipe, TlaDisplay> mapper) {
+        this.generator = generator;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Optional<List<TlaDisplay>> getRecipeFor(EntryStack<?> entry) {
+        return generate(entry, generator::getRecipesFor);
+    }
+
+    @Override
+    public Optional<List<TlaDisplay>> getUsageFor(EntryStack<?> entry) {
+        return generate(entry, generator::getUsagesFor);
+    }
+
+    private Optional<List<TlaDisplay>> generate(EntryStack<?> entry, Function<TlaStack, List<TlaRecipe>> lookup) {
+        var stack = ReiUtil.convertStack(entry);
+        if (stack.getAmount() == 0) return Optional.empty();
+
+        var recipes = lookup.apply(stack);
+        if (recipes.isEmpty()) return Optional.empty();
+        return Optional.of(recipes.stream().map(mapper).toList());
+    }
+}
@@ -16,6 +16,7 @@ dependencyResolutionManagement {
     versionCatalogs.create("libs") {
         library("fabric-api", "net.fabricmc.fabric-api:fabric-api:${getProp("fabric_version")}")
         library("fabric-loader", "net.fabricmc:fabric-loader:${getProp("loader_version")}")
+        library("fabric-loader-junit", "net.fabricmc:fabric-loader-junit:${getProp("loader_version")}")
         library("fabric-yarn", "net.fabricmc:yarn:${getProp("yarn_mappings")}")
         library("minecraft", "com.mojang:minecraft:${getProp("minecraft_version")}")
 
@@ -26,5 +27,8 @@ dependencyResolutionManagement {
         library("rei-math", "me.shedaniel.cloth:basic-math:${getProp("cloth_basic_math_version")}")
         library("rei-config", "me.shedaniel.cloth:cloth-config-fabric:${getProp("cloth_config_version")}")
         library("emi", "dev.emi:emi-fabric:${getProp("emi_version")}")
+
+        library("jmh-core", "org.openjdk.jmh:jmh-core:${getProp("jmh_version")}")
+        library("jmh-generator", "org.openjdk.jmh:jmh-generator-annprocess:${getProp("jmh_version")}")
     }
 }
\ No newline at end of file
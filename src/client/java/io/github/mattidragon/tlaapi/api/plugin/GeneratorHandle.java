@@ -0,0 +1,24 @@
+package io.github.mattidragon.tlaapi.api.plugin;
+
+import io.github.mattidragon.tlaapi.impl.ImplementationsExtend;
+
+/**
+ * A handle to a generator registered using {@link PluginContext#addRefreshableGenerator} or {@link PluginContext#addRefreshableRecipeGenerator}.
+ * Allows plugins to update the recipes of a single generator, for example after a config change, without reloading the whole recipe viewer.
+ * Handles become invalid once the recipe viewer reloads, as plugins are registered again.
+ */
+@ImplementationsExtend
+public interface GeneratorHandle {
+    /**
+     * A handle that never refreshes.
+     */
+    GeneratorHandle UNSUPPORTED = () -> false;
+
+    /**
+     * Runs the generator again and replaces its recipes in the recipe viewer with the new ones.
+     * Must be called on the client thread.
+     * @return Whether the recipes were replaced. If this returns false the recipe viewer has to be reloaded for changes to show up.
+     * @implNote EMI doesn't support changing recipes outside of reloads, as such this always returns false when running through it.
+     */
+    boolean refresh();
+}
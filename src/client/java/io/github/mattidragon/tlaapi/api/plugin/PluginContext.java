@@ -2,19 +2,30 @@ package io.github.mattidragon.tlaapi.api.plugin;
 
 import io.github.mattidragon.tlaapi.api.StackDragHandler;
 import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
 import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
 import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
 import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
 import io.github.mattidragon.tlaapi.impl.ImplementationsExtend;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.item.ItemConvertible;
 import net.minecraft.recipe.Recipe;
 import net.minecraft.recipe.RecipeEntry;
 import net.minecraft.recipe.RecipeType;
+import net.minecraft.util.Identifier;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * The main way plugins interact with the API.
@@ -40,6 +51,26 @@ public interface PluginContext {
      */
     <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator);
 
+    /**
+     * Adds a recipe generator that can create any number of recipe entries in the recipe viewer for each recipe of a given type.
+     * Recipes are passed to the sink, which allows a single recipe to be expanded into several entries or skipped entirely.
+     * The sink must only be called from the thread running the generator and only until the generator returns.
+     * @see TlaRecipe
+     * @see #addRecipeGenerator
+     */
+    @SuppressWarnings("unchecked")
+    default <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        addStreamingGenerator((client, sink) -> {
+            var handler = client.getNetworkHandler();
+            if (handler == null) return;
+            for (var entry : handler.getRecipeManager().values()) {
+                if (entry.value().getType() == type) {
+                    generator.accept((RecipeEntry<T>) entry, sink);
+                }
+            }
+        });
+    }
+
     /**
      * Adds a recipe generator that can create recipe entries in the recipe viewer from any source.
      * The generator is provided the client instance for convenience.
@@ -48,6 +79,114 @@ public interface PluginContext {
      */
     void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator);
 
+    /**
+     * Adds a recipe generator that can create recipe entries in the recipe viewer from any source, passing them to a sink as they are created.
+     * Unlike {@link #addGenerator} the recipes don't need to be collected into a list first, which is preferable for generators that create a large number of recipes.
+     * The sink must only be called from the thread running the generator and only until the generator returns.
+     * @see TlaRecipe
+     * @see #addGenerator
+     */
+    default void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        addGenerator(client -> {
+            var recipes = new ArrayList<TlaRecipe>();
+            generator.accept(client, recipes::add);
+            return recipes;
+        });
+    }
+
+    /**
+     * Adds a recipe generator that creates its recipes asynchronously.
+     * Useful for generators that need to do slow work such as reading files before they can create recipes.
+     * The generator is called on a separate thread, and all asynchronous generators are allowed to run concurrently.
+     * Registration is only finished once every returned future has completed, so the futures should complete in a reasonable time.
+     * @see TlaRecipe
+     * @see #addGenerator
+     * @implNote The default implementation waits for the future on the calling thread. Plugins are always given a context where generators run concurrently.
+     */
+    default void addAsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+        addGenerator(client -> generator.apply(client).join());
+    }
+
+    /**
+     * Adds a recipe generator like {@link #addRecipeGenerator}, returning a handle that can be used to run it again without reloading the recipe viewer.
+     * Recipes from refreshable generators aren't cached between reloads, so they should only be used for generators that actually need refreshing.
+     * @see GeneratorHandle
+     * @see ViewerCapability#LATE_RECIPES
+     */
+    default <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        addRecipeGenerator(type, generator);
+        return GeneratorHandle.UNSUPPORTED;
+    }
+
+    /**
+     * Adds a recipe generator like {@link #addGenerator}, returning a handle that can be used to run it again without reloading the recipe viewer.
+     * Recipes from refreshable generators aren't cached between reloads, so they should only be used for generators that actually need refreshing.
+     * @see GeneratorHandle
+     * @see ViewerCapability#LATE_RECIPES
+     */
+    default GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        addGenerator(generator);
+        return GeneratorHandle.UNSUPPORTED;
+    }
+
+    /**
+     * Adds a generator that creates recipes when a stack is looked up in the recipe viewer, instead of when the viewer reloads.
+     * @see DynamicRecipeGenerator
+     * @see ViewerCapability#DYNAMIC_GENERATORS
+     * @implNote EMI does not provide lazy recipe lookups, as such this method is a no-op when running through it.
+     * The default implementation does nothing, so implementations without lazy lookups don't need to override it.
+     */
+    default void addDynamicGenerator(DynamicRecipeGenerator generator) {
+    }
+
+    /**
+     * Adds a filter that every generated recipe has to pass to be added to the recipe viewer.
+     * Filters apply to the recipes of every plugin, regardless of the order plugins are registered in.
+     * They are checked before recipes are converted for the recipe viewer, so pruned recipes cost little beyond the check itself.
+     * Useful for hiding the recipes of content that is disabled, for example through data packs.
+     * Filters should only rely on the methods of {@link TlaRecipe}, not on the class of the recipe.
+     * Recipes restored from a warm start snapshot are stand-ins that aren't instances of the class the plugin created.
+     * @param filter Returns true for recipes that should be kept.
+     * @see #hideCategory
+     * @see #hideRecipesWithOutput
+     * @implNote Filters are collected from every plugin and applied by tla before anything is committed to the recipe viewer.
+     * The default implementation does nothing, as implementations only receive recipes that already passed every filter.
+     */
+    default void addRecipeFilter(Predicate<TlaRecipe> filter) {
+    }
+
+    /**
+     * Adds a generator that creates recipes from the already generated recipes of other categories.
+     * Derived generators are scheduled by the categories they read and create, so they can build on each other.
+     * @see DerivedRecipeGenerator
+     * @implNote Derived generators are collected from every plugin and run by tla once the other generators have run.
+     * The default implementation does nothing, as implementations never run derived generators themselves.
+     */
+    default void addDerivedGenerator(DerivedRecipeGenerator generator) {
+    }
+
+    /**
+     * Hides every generated recipe in the category with the given id.
+     * @see #addRecipeFilter
+     */
+    default void hideCategory(Identifier categoryId) {
+        addRecipeFilter(recipe -> !recipe.getCategory().getId().equals(categoryId));
+    }
+
+    /**
+     * Hides every generated recipe that outputs the given item.
+     * @see #addRecipeFilter
+     */
+    default void hideRecipesWithOutput(ItemConvertible item) {
+        var target = item.asItem();
+        addRecipeFilter(recipe -> {
+            for (var output : recipe.getOutputs()) {
+                if (output instanceof TlaStack.TlaItemStack stack && stack.getItem() == target) return false;
+            }
+            return true;
+        });
+    }
+
     /**
      * Adds an area which can be clicked to open a category if the recipe viewer supports it.
      * The bounds are based on screen coordinates. To use handled screen coordinates use {@link #addScreenHandlerClickArea}.
@@ -55,6 +194,7 @@ public interface PluginContext {
      * @param category The category which should be opened.
      * @param boundsFunction The function that supplies the bounds.
      * @see #addScreenHandlerClickArea(Class, TlaCategory, Function)
+     * @see ViewerCapability#CLICK_AREAS
      * @implNote EMI does not provide this functionality, as such this method is a no-op when running through it.
      */
     <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction);
@@ -66,6 +206,7 @@ public interface PluginContext {
      * @param category The category which should be opened.
      * @param boundsFunction The function that supplies the bounds.
      * @see #addClickArea(Class, TlaCategory, Function)
+     * @see ViewerCapability#CLICK_AREAS
      * @implNote EMI does not provide this functionality, as such this method is a no-op when running through it.
      */
     <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction);
@@ -98,4 +239,22 @@ public interface PluginContext {
      * Provides users of TLA-api knowledge of which recipe viewer invoked the plugin.
      */
     RecipeViewer getActiveViewer();
+
+    /**
+     * Returns the features that the active recipe viewer makes use of.
+     * @see ViewerCapability
+     * @see #supports
+     */
+    default Set<ViewerCapability> getCapabilities() {
+        return getActiveViewer().capabilities();
+    }
+
+    /**
+     * Returns whether the active recipe viewer makes use of a feature.
+     * Plugins can use this to skip expensive work whose result would be ignored, such as computing catalysts for viewers that don't show them.
+     * @see ViewerCapability
+     */
+    default boolean supports(ViewerCapability capability) {
+        return getActiveViewer().supports(capability);
+    }
 }
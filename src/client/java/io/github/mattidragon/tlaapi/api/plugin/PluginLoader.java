@@ -12,8 +12,12 @@ public class PluginLoader {
 
     /**
      * Loads plugins into the provided context.
+     * A load report is written as soon as all plugins are registered, so generators that run later aren't included in it.
+     * Derived generators run in a generator that is added after every other one, so the context should run its generators in registration order.
      */
     public static void loadPlugins(PluginContext implementation) {
-        TlaApi.loadPlugins(implementation);
+        var session = TlaApi.loadPlugins(implementation, true);
+        session.addDerivedGenerators(implementation);
+        session.finish();
     }
 }
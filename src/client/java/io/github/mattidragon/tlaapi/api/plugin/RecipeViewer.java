@@ -1,29 +1,46 @@
 package io.github.mattidragon.tlaapi.api.plugin;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Locale;
+import java.util.Set;
 
 /**
  * Pseudo-enum of recipe viewers. Users of TLA-Api will be given one of these to signify which recipe viewer the plugin is running under.
  * The same plugin may be called multiple times with different viewers if multiple are installed.
  */
 public final class RecipeViewer {
-    public static final RecipeViewer EMI = new RecipeViewer("emi");
-    public static final RecipeViewer REI = new RecipeViewer("rei");
+    public static final RecipeViewer EMI = new RecipeViewer("emi", EnumSet.of(ViewerCapability.CATALYSTS, ViewerCapability.RECIPE_IDS, ViewerCapability.RECIPE_ORDERING, ViewerCapability.SIMPLE_ICONS));
+    public static final RecipeViewer REI = new RecipeViewer("rei", EnumSet.of(ViewerCapability.CLICK_AREAS, ViewerCapability.DARK_THEME, ViewerCapability.DYNAMIC_GENERATORS, ViewerCapability.LATE_RECIPES));
     /**
      * @apiNote Currently no JEI support is provided, however it may be added in the future.
      */
-    public static final RecipeViewer JEI = new RecipeViewer("jei");
+    public static final RecipeViewer JEI = new RecipeViewer("jei", EnumSet.noneOf(ViewerCapability.class));
 
     private final String id;
+    private final Set<ViewerCapability> capabilities;
 
-    private RecipeViewer(String id) {
+    private RecipeViewer(String id, EnumSet<ViewerCapability> capabilities) {
         this.id = id;
+        this.capabilities = Collections.unmodifiableSet(capabilities);
     }
 
     public String id() {
         return id;
     }
 
+    /**
+     * Returns the features that the tla implementation for this viewer makes use of.
+     * @see ViewerCapability
+     */
+    public Set<ViewerCapability> capabilities() {
+        return capabilities;
+    }
+
+    public boolean supports(ViewerCapability capability) {
+        return capabilities.contains(capability);
+    }
+
     @Override
     public String toString() {
         return "RecipeViewer[%s]".formatted(id.toUpperCase(Locale.ROOT));
@@ -16,4 +16,16 @@ public interface TlaApiPlugin {
      * Plugins should register everything each time this method is called.
      */
     void register(PluginContext context);
+
+    /**
+     * Whether {@link #register} may be called on a worker thread, concurrently with other plugins.
+     * This only matters when parallel plugin loading is enabled using the {@code tla-api.parallelLoading} system property.
+     * Plugins that return false are registered on the thread that reloads the recipe viewer.
+     * @implNote Registrations are buffered and committed to the recipe viewer in a deterministic order regardless of this value.
+     * With parallel loading enabled, recipe generators may also be invoked from worker threads, so they should not rely on shared mutable state.
+     * The generators of plugins that return false are only run on the thread that reloads the recipe viewer.
+     */
+    default boolean isParallelSafe() {
+        return true;
+    }
 }
@@ -0,0 +1,44 @@
+package io.github.mattidragon.tlaapi.api.plugin;
+
+/**
+ * Features that only some recipe viewers make use of.
+ * Plugins can check these to skip work whose result would be ignored by the active viewer.
+ * @see PluginContext#supports
+ * @see RecipeViewer#capabilities()
+ */
+public enum ViewerCapability {
+    /**
+     * Click areas added with {@link PluginContext#addClickArea} and {@link PluginContext#addScreenHandlerClickArea} are shown.
+     */
+    CLICK_AREAS,
+    /**
+     * {@link io.github.mattidragon.tlaapi.api.recipe.TlaRecipe#getCatalysts() Recipe catalysts} are used.
+     */
+    CATALYSTS,
+    /**
+     * {@link io.github.mattidragon.tlaapi.api.recipe.TlaRecipe#getId() Recipe ids} are used by the viewer.
+     * Tla itself keys warm start snapshots and duplicate removal on recipe ids under every viewer,
+     * so plugins should still provide them when the active viewer lacks this capability.
+     */
+    RECIPE_IDS,
+    /**
+     * {@link io.github.mattidragon.tlaapi.api.recipe.TlaCategory#getRecipeComparator() Recipe comparators} are used to order recipes.
+     */
+    RECIPE_ORDERING,
+    /**
+     * {@link io.github.mattidragon.tlaapi.api.recipe.TlaCategory#getSimpleIcon() Simple category icons} are shown.
+     */
+    SIMPLE_ICONS,
+    /**
+     * The viewer has a dark theme, in which the {@link io.github.mattidragon.tlaapi.api.gui.TextureConfig#darkTexture() dark textures} are used.
+     */
+    DARK_THEME,
+    /**
+     * {@link PluginContext#addDynamicGenerator Dynamic generators} are run.
+     */
+    DYNAMIC_GENERATORS,
+    /**
+     * Recipes can be added after loading, which allows {@link PluginContext#addRefreshableGenerator refreshable generators} to be refreshed.
+     */
+    LATE_RECIPES
+}
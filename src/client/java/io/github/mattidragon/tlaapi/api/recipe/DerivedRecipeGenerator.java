@@ -0,0 +1,47 @@
+package io.github.mattidragon.tlaapi.api.recipe;
+
+import io.github.mattidragon.tlaapi.impl.ImplementationsExtend;
+import io.github.mattidragon.tlaapi.impl.PluginsExtend;
+import net.minecraft.client.MinecraftClient;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates recipes from the already generated recipes of other categories, for example recycling recipes from crafting recipes.
+ * Derived generators run once every other generator has run, and after every derived generator that creates recipes in the categories they read.
+ * Generators that don't depend on each other may run concurrently.
+ * @see io.github.mattidragon.tlaapi.api.plugin.PluginContext#addDerivedGenerator
+ */
+@PluginsExtend
+public interface DerivedRecipeGenerator {
+    /**
+     * The categories whose recipes this generator reads.
+     */
+    Set<TlaCategory> getSourceCategories();
+
+    /**
+     * The categories this generator creates recipes in.
+     * Derived generators that read these categories run after this one.
+     */
+    Set<TlaCategory> getTargetCategories();
+
+    /**
+     * Creates recipes from the recipes of the source categories.
+     * @param sources Provides the recipes of the source categories.
+     */
+    List<TlaRecipe> generate(MinecraftClient client, Sources sources);
+
+    /**
+     * A read-only view of the recipes that were added to the recipe viewer.
+     */
+    @ImplementationsExtend
+    interface Sources {
+        /**
+         * Returns the recipes of a category.
+         * These are the recipes the generators of other plugins created, including those restored from a warm start snapshot.
+         * @throws IllegalArgumentException If the category isn't one of the {@link #getSourceCategories() source categories}.
+         */
+        List<TlaRecipe> getRecipes(TlaCategory category);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.mattidragon.tlaapi.api.recipe;
+
+import io.github.mattidragon.tlaapi.impl.PluginsExtend;
+
+import java.util.List;
+
+/**
+ * Generates recipes on demand when a stack is looked up in the recipe viewer, instead of ahead of time.
+ * Useful for recipes that exist for a large amount of stack variants, for example every combination of components.
+ * Only the recipes that are actually looked up are ever created.
+ * Generators may be called many times for the same stack, so expensive results should be cached.
+ * @see io.github.mattidragon.tlaapi.api.plugin.PluginContext#addDynamicGenerator
+ */
+@PluginsExtend
+public interface DynamicRecipeGenerator {
+    /**
+     * Provides the recipes that produce the given stack.
+     */
+    default List<TlaRecipe> getRecipesFor(TlaStack stack) {
+        return List.of();
+    }
+
+    /**
+     * Provides the recipes that use the given stack.
+     */
+    default List<TlaRecipe> getUsagesFor(TlaStack stack) {
+        return List.of();
+    }
+}
@@ -50,12 +50,14 @@ public interface TlaCategory {
      * It should ideally be easy to differentiate from an item as it shows up next to them without separation in the tree.
      * It's recommended to use a 16x16 white on transparent line art of the primary crafting block for the recipe here.
      * You can look at the default icons in EMI for inspiration.
+     * @see io.github.mattidragon.tlaapi.api.plugin.ViewerCapability#SIMPLE_ICONS
      */
     CategoryIcon getSimpleIcon();
 
     /**
      * Returns a comparator for ordering recipes in this category.
      * Returning null will fall back to the default ordering.
+     * @see io.github.mattidragon.tlaapi.api.plugin.ViewerCapability#RECIPE_ORDERING
      * @implNote This is only respected by the EMI implementation as REI doesn't seem to support custom ordering.
      */
     default @Nullable Comparator<TlaRecipe> getRecipeComparator() {
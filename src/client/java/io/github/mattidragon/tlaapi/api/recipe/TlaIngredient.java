@@ -1,13 +1,15 @@
 package io.github.mattidragon.tlaapi.api.recipe;
 
+import io.github.mattidragon.tlaapi.impl.StackInterner;
+import io.github.mattidragon.tlaapi.impl.TagIngredientCache;
 import net.minecraft.fluid.Fluid;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemConvertible;
 import net.minecraft.recipe.Ingredient;
 import net.minecraft.registry.Registries;
-import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.registry.entry.RegistryEntryList;
 import net.minecraft.registry.tag.TagKey;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -22,33 +24,47 @@ public final class TlaIngredient {
     /**
      * An empty ingredient, containing no stacks.
      */
-    public static final TlaIngredient EMPTY = new TlaIngredient(List.of());
+    public static final TlaIngredient EMPTY = create(List.of());
 
     private final Collection<TlaStack> stacks;
+    // Stacks are immutable, so the hash can be computed once instead of rehashing the whole list on every lookup
+    private final int hash;
+    private final @Nullable TagKey<?> tag;
 
-    private TlaIngredient(Collection<TlaStack> stacks) {
+    private TlaIngredient(Collection<TlaStack> stacks, @Nullable TagKey<?> tag) {
         this.stacks = stacks;
+        this.hash = stacks.hashCode();
+        this.tag = tag;
+    }
+
+    private static TlaIngredient create(Collection<TlaStack> stacks) {
+        return StackInterner.intern(new TlaIngredient(stacks, null));
+    }
+
+    // Never interned, as interning could hand the tagged instance to an equal ingredient built by hand
+    private static TlaIngredient createTagged(Collection<TlaStack> stacks, TagKey<?> tag) {
+        return new TlaIngredient(stacks, tag);
     }
 
     /**
      * Creates a new ingredient from the provided stacks.
      */
     public static TlaIngredient ofStacks(Collection<? extends TlaStack> stacks) {
-        return new TlaIngredient(List.copyOf(stacks));
+        return create(List.copyOf(stacks));
     }
 
     /**
      * Creates a new ingredient from the provided stacks.
      */
     public static TlaIngredient ofStacks(TlaStack... stacks) {
-        return new TlaIngredient(List.of(stacks));
+        return create(List.of(stacks));
     }
 
     /**
      * Creates a new ingredient from the provided vanilla ingredient.
      */
     public static TlaIngredient ofIngredient(Ingredient ingredient) {
-        return new TlaIngredient(Arrays.stream(ingredient.getMatchingStacks()).<TlaStack>map(TlaStack::of).toList());
+        return create(Arrays.stream(ingredient.getMatchingStacks()).<TlaStack>map(TlaStack::of).toList());
     }
 
     /**
@@ -61,13 +77,18 @@ public final class TlaIngredient {
     /**
      * Creates a new ingredient from the provided item tag.
      * Note that any tags used here or in recipes should be translated so that they appear nicely in EMI.
+     * The returned ingredient is shared between callers until tags are reloaded.
      */
     public static TlaIngredient ofItemTag(TagKey<Item> tag) {
-        return ofItems(Registries.ITEM.getEntryList(tag)
+        return TagIngredientCache.get(tag, TlaIngredient::resolveItemTag);
+    }
+
+    private static TlaIngredient resolveItemTag(TagKey<Item> tag) {
+        return createTagged(Registries.ITEM.getEntryList(tag)
                 .map(RegistryEntryList.Named::stream)
                 .orElse(Stream.empty())
-                .map(RegistryEntry::value)
-                .toList());
+                .<TlaStack>map(entry -> TlaStack.of(entry.value()))
+                .toList(), tag);
     }
 
     /**
@@ -80,13 +101,18 @@ public final class TlaIngredient {
     /**
      * Creates a new ingredient from the provided fluid tag.
      * Note that any tags used here or in recipes should be translated so that they appear nicely in EMI.
+     * The returned ingredient is shared between callers until tags are reloaded.
      */
     public static TlaIngredient ofFluidTag(TagKey<Fluid> tag) {
-        return ofFluids(Registries.FLUID.getEntryList(tag)
+        return TagIngredientCache.get(tag, TlaIngredient::resolveFluidTag);
+    }
+
+    private static TlaIngredient resolveFluidTag(TagKey<Fluid> tag) {
+        return createTagged(Registries.FLUID.getEntryList(tag)
                 .map(RegistryEntryList.Named::stream)
                 .orElse(Stream.empty())
-                .map(RegistryEntry::value)
-                .toList());
+                .<TlaStack>map(entry -> TlaStack.bucketOf(entry.value()))
+                .toList(), tag);
     }
 
     /**
@@ -94,7 +120,7 @@ public final class TlaIngredient {
      * Does not play well with EMIs tag names so should be avoided if possible.
      */
     public static TlaIngredient join(TlaIngredient... ingredients) {
-        return new TlaIngredient(Arrays.stream(ingredients).flatMap(ingredient -> ingredient.stacks.stream()).toList());
+        return create(Arrays.stream(ingredients).flatMap(ingredient -> ingredient.stacks.stream()).toList());
     }
 
     /**
@@ -102,7 +128,7 @@ public final class TlaIngredient {
      * Does not play well with EMIs tag names so should be avoided if possible.
      */
     public static TlaIngredient join(Collection<? extends TlaIngredient> ingredients) {
-        return new TlaIngredient(ingredients.stream().flatMap(ingredient -> ingredient.getStacks().stream()).toList());
+        return create(ingredients.stream().flatMap(ingredient -> ingredient.getStacks().stream()).toList());
     }
 
     /**
@@ -112,19 +138,28 @@ public final class TlaIngredient {
         return stacks;
     }
 
+    /**
+     * Returns the tag this ingredient was created from, or null if it wasn't created from a tag.
+     * Derived ingredients, such as those returned by {@link #withAmount}, don't keep the tag.
+     */
+    public @Nullable TagKey<?> getTag() {
+        return tag;
+    }
+
     /**
      * Create a new ingredient where every stack has the provided count.
      * Note that this applies equally to fluids and items.
      */
     public TlaIngredient withAmount(long amount) {
-        return new TlaIngredient(stacks.stream().map(stack -> stack.withAmount(amount)).toList());
+        return create(stacks.stream().map(stack -> stack.withAmount(amount)).toList());
     }
 
     /**
      * Create a new ingredient where every stack has the provided chance.
+     * A chance of {@link Double#NaN} removes the chance, see {@link TlaStack#withChance}.
      */
     public TlaIngredient withChance(double chance) {
-        return new TlaIngredient(stacks.stream().map(stack -> stack.withChance(chance)).toList());
+        return create(stacks.stream().map(stack -> stack.withChance(chance)).toList());
     }
 
     @Override
@@ -132,12 +167,12 @@ public final class TlaIngredient {
         if (obj == this) return true;
         if (obj == null || obj.getClass() != this.getClass()) return false;
         var that = (TlaIngredient) obj;
-        return Objects.equals(this.stacks, that.stacks);
+        return this.hash == that.hash && Objects.equals(this.stacks, that.stacks);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(stacks);
+        return hash;
     }
 
     @Override
@@ -24,7 +24,9 @@ public interface TlaRecipe {
      * This may return {@code null} if the recipe doesn't have an identifier and one can't be generated,
      * but that will result in certain features not working properly.
      * For recipes that aren't vanilla recipes it's recommended to provide an identifier with a single slash at the start of the path to distinguish it.
-     * @implNote Only used by the EMI implementation.
+     * @see io.github.mattidragon.tlaapi.api.plugin.ViewerCapability#RECIPE_IDS
+     * @implNote Only the EMI implementation passes ids on to the viewer.
+     * Under every viewer, warm start snapshots store them and duplicate removal only drops recipes that have one.
      */
     @Nullable Identifier getId();
 
@@ -42,6 +44,7 @@ public interface TlaRecipe {
      * Returns all the catalysts of this recipe.
      * Catalysts are ingredients that aren't consumed by the recipe but still need to be present.
      * Usually corresponds to the catalyst slot in the recipe gui.
+     * @see io.github.mattidragon.tlaapi.api.plugin.ViewerCapability#CATALYSTS
      * @implNote Only used by the EMI implementation.
      */
     List<TlaIngredient> getCatalysts();
@@ -1,5 +1,6 @@
 package io.github.mattidragon.tlaapi.api.recipe;
 
+import io.github.mattidragon.tlaapi.impl.StackInterner;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidConstants;
 import net.fabricmc.fabric.api.transfer.v1.fluid.FluidVariant;
 import net.fabricmc.fabric.api.transfer.v1.item.ItemVariant;
@@ -15,12 +16,17 @@ import java.util.OptionalDouble;
 /**
  * Represents a stack of items or fluids for use with recipe viewers.
  */
-@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public sealed abstract class TlaStack {
+    /**
+     * Stored in {@link #chance} when the stack has no chance.
+     * A primitive sentinel avoids keeping an {@link OptionalDouble} alive for every stack.
+     */
+    protected static final double NO_CHANCE = Double.NaN;
+
     protected final long amount;
-    protected final OptionalDouble chance;
+    protected final double chance;
 
-    protected TlaStack(long amount, OptionalDouble chance) {
+    protected TlaStack(long amount, double chance) {
         this.amount = amount;
         this.chance = chance;
     }
@@ -33,7 +39,7 @@ public sealed abstract class TlaStack {
     }
 
     public static TlaFluidStack of(FluidVariant fluid, long amount) {
-        return new TlaFluidStack(fluid, amount, OptionalDouble.empty());
+        return StackInterner.intern(new TlaFluidStack(fluid, amount, NO_CHANCE));
     }
 
     public static TlaFluidStack of(Fluid fluid, long amount) {
@@ -49,7 +55,7 @@ public sealed abstract class TlaStack {
     }
 
     public static TlaItemStack of(ItemVariant item, long amount) {
-        return new TlaItemStack(item, amount, OptionalDouble.empty());
+        return StackInterner.intern(new TlaItemStack(item, amount, NO_CHANCE));
     }
 
     public static TlaItemStack of(ItemVariant item) {
@@ -73,6 +79,21 @@ public sealed abstract class TlaStack {
     }
 
     public OptionalDouble getChance() {
+        return Double.isNaN(chance) ? OptionalDouble.empty() : OptionalDouble.of(chance);
+    }
+
+    /**
+     * Returns whether this stack has a chance, which is the case if {@link #getChance()} isn't empty.
+     */
+    public boolean hasChance() {
+        return !Double.isNaN(chance);
+    }
+
+    /**
+     * Returns the chance of this stack without allocating, or {@link Double#NaN} if it has none.
+     * @see #hasChance()
+     */
+    public double getRawChance() {
         return chance;
     }
 
@@ -83,6 +104,7 @@ public sealed abstract class TlaStack {
 
     /**
      * Returns a copy of this stack with the provided chance.
+     * A chance of {@link Double#NaN} is stored as no chance, so the copy is equal to {@link #withoutChance()}.
      * @implNote The chances for each stack in an ingredient are averaged for display in EMI.
      */
     public abstract TlaStack withChance(double chance);
@@ -98,26 +120,27 @@ public sealed abstract class TlaStack {
 
     public static final class TlaFluidStack extends TlaStack {
         private final FluidVariant fluid;
+        private final int hash;
 
-        private TlaFluidStack(FluidVariant fluid, long amount, OptionalDouble chance) {
+        private TlaFluidStack(FluidVariant fluid, long amount, double chance) {
             super(amount, chance);
             this.fluid = fluid;
-
+            this.hash = 31 * (31 * fluid.hashCode() + Long.hashCode(amount)) + Double.hashCode(chance);
         }
 
         @Override
         public TlaFluidStack withAmount(long amount) {
-            return new TlaFluidStack(fluid, amount, chance);
+            return StackInterner.intern(new TlaFluidStack(fluid, amount, chance));
         }
 
         @Override
         public TlaFluidStack withChance(double chance) {
-            return new TlaFluidStack(fluid, amount, OptionalDouble.of(chance));
+            return StackInterner.intern(new TlaFluidStack(fluid, amount, chance));
         }
 
         @Override
         public TlaFluidStack withoutChance() {
-            return new TlaFluidStack(fluid, amount, OptionalDouble.empty());
+            return StackInterner.intern(new TlaFluidStack(fluid, amount, NO_CHANCE));
         }
 
         public FluidVariant getFluidVariant() {
@@ -133,14 +156,15 @@ public sealed abstract class TlaStack {
             if (obj == this) return true;
             if (obj == null || obj.getClass() != this.getClass()) return false;
             var that = (TlaFluidStack) obj;
-            return Objects.equals(this.fluid, that.fluid) &&
+            return this.hash == that.hash &&
                    this.amount == that.amount &&
-                   Objects.equals(this.chance, that.chance);
+                   Double.compare(this.chance, that.chance) == 0 &&
+                   Objects.equals(this.fluid, that.fluid);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(fluid, amount, chance);
+            return hash;
         }
 
         @Override
@@ -148,31 +172,33 @@ public sealed abstract class TlaStack {
             return "TlaFluidStack[" +
                    "fluid=" + fluid + ", " +
                    "amount=" + amount + ", " +
-                   "chance=" + chance + ']';
+                   "chance=" + getChance() + ']';
         }
     }
 
     public static final class TlaItemStack extends TlaStack {
         private final ItemVariant item;
+        private final int hash;
 
-        private TlaItemStack(ItemVariant item, long amount, OptionalDouble chance) {
+        private TlaItemStack(ItemVariant item, long amount, double chance) {
             super(amount, chance);
             this.item = item;
+            this.hash = 31 * (31 * item.hashCode() + Long.hashCode(amount)) + Double.hashCode(chance);
         }
 
         @Override
         public TlaItemStack withAmount(long amount) {
-            return new TlaItemStack(item, amount, chance);
+            return StackInterner.intern(new TlaItemStack(item, amount, chance));
         }
 
         @Override
         public TlaItemStack withChance(double chance) {
-            return new TlaItemStack(item, amount, OptionalDouble.of(chance));
+            return StackInterner.intern(new TlaItemStack(item, amount, chance));
         }
 
         @Override
         public TlaItemStack withoutChance() {
-            return new TlaItemStack(item, amount, OptionalDouble.empty());
+            return StackInterner.intern(new TlaItemStack(item, amount, NO_CHANCE));
         }
 
         public Item getItem() {
@@ -192,14 +218,15 @@ public sealed abstract class TlaStack {
             if (obj == this) return true;
             if (obj == null || obj.getClass() != this.getClass()) return false;
             var that = (TlaItemStack) obj;
-            return Objects.equals(this.item, that.item) &&
+            return this.hash == that.hash &&
                    this.amount == that.amount &&
-                   Objects.equals(this.chance, that.chance);
+                   Double.compare(this.chance, that.chance) == 0 &&
+                   Objects.equals(this.item, that.item);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(item, amount, chance);
+            return hash;
         }
 
         @Override
@@ -207,7 +234,7 @@ public sealed abstract class TlaStack {
             return "TlaItemStack[" +
                    "item=" + item + ", " +
                    "amount=" + amount + ", " +
-                   "chance=" + chance + ']';
+                   "chance=" + getChance() + ']';
         }
     }
 }
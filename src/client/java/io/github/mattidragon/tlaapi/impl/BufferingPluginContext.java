@@ -0,0 +1,251 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.StackDragHandler;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A plugin context that records every call made to it so that they can later be replayed onto a real implementation.
+ * Recording is thread-safe, which allows plugins to register concurrently while still being committed in a deterministic order.
+ */
+public class BufferingPluginContext implements PluginContext {
+    private final RecipeViewer viewer;
+    private final List<Consumer<PluginContext>> calls = new ArrayList<>();
+    private final List<AsyncGenerator> asyncGenerators = new ArrayList<>();
+    private final List<Predicate<TlaRecipe>> recipeFilters = new ArrayList<>();
+    private final List<DerivedRecipeGenerator> derivedGenerators = new ArrayList<>();
+
+    public BufferingPluginContext(RecipeViewer viewer) {
+        this.viewer = viewer;
+    }
+
+    /**
+     * Replays all recorded calls onto the target in the order they were made.
+     */
+    public void replay(PluginContext target) {
+        List<Consumer<PluginContext>> calls;
+        synchronized (this.calls) {
+            calls = List.copyOf(this.calls);
+        }
+        for (var call : calls) {
+            call.accept(target);
+        }
+    }
+
+    /**
+     * Starts every recorded asynchronous generator on the executor, unless it was already started.
+     * Must be called before replaying, which waits for the generators to finish.
+     * @return A future that completes once all generators have completed.
+     */
+    public CompletableFuture<Void> startAsyncGenerators(Executor executor) {
+        List<AsyncGenerator> generators;
+        synchronized (calls) {
+            generators = List.copyOf(asyncGenerators);
+        }
+        return CompletableFuture.allOf(generators.stream().map(generator -> generator.start(executor)).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Returns the recorded recipe filters, so that they can be applied to the recipes of every plugin before anything is committed.
+     * Filters are replayed as well, which keeps them when this buffer is replayed into another one.
+     */
+    public List<Predicate<TlaRecipe>> getRecipeFilters() {
+        synchronized (calls) {
+            return List.copyOf(recipeFilters);
+        }
+    }
+
+    /**
+     * Returns the recorded derived generators, so that they can be scheduled together with the derived generators of every other plugin.
+     * Derived generators are replayed as well, which keeps them when this buffer is replayed into another one.
+     */
+    public List<DerivedRecipeGenerator> getDerivedGenerators() {
+        synchronized (calls) {
+            return List.copyOf(derivedGenerators);
+        }
+    }
+
+    protected void record(Consumer<PluginContext> call) {
+        synchronized (calls) {
+            calls.add(call);
+        }
+    }
+
+    @Override
+    public void addCategory(TlaCategory category) {
+        record(target -> target.addCategory(category));
+    }
+
+    @Override
+    public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
+        var copy = workstations.clone();
+        record(target -> target.addWorkstation(category, copy));
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        record(target -> target.addRecipeGenerator(type, generator));
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        record(target -> target.addMultiRecipeGenerator(type, generator));
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        record(target -> target.addGenerator(generator));
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        record(target -> target.addStreamingGenerator(generator));
+    }
+
+    @Override
+    public void addAsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+        var asyncGenerator = new AsyncGenerator(generator);
+        synchronized (calls) {
+            asyncGenerators.add(asyncGenerator);
+        }
+        record(target -> target.addAsyncGenerator(asyncGenerator));
+    }
+
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var handle = new ReplayedGeneratorHandle();
+        record(target -> handle.addTarget(target.addRefreshableRecipeGenerator(type, generator)));
+        return handle;
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        var handle = new ReplayedGeneratorHandle();
+        record(target -> handle.addTarget(target.addRefreshableGenerator(generator)));
+        return handle;
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        record(target -> target.addDynamicGenerator(generator));
+    }
+
+    @Override
+    public void addRecipeFilter(Predicate<TlaRecipe> filter) {
+        synchronized (calls) {
+            recipeFilters.add(filter);
+        }
+        record(target -> target.addRecipeFilter(filter));
+    }
+
+    @Override
+    public void addDerivedGenerator(DerivedRecipeGenerator generator) {
+        synchronized (calls) {
+            derivedGenerators.add(generator);
+        }
+        record(target -> target.addDerivedGenerator(generator));
+    }
+
+    @Override
+    public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        record(target -> target.addClickArea(clazz, category, boundsFunction));
+    }
+
+    @Override
+    public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        record(target -> target.addScreenHandlerClickArea(clazz, category, boundsFunction));
+    }
+
+    @Override
+    public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
+        record(target -> target.addStackDragHandler(clazz, handler));
+    }
+
+    // Recorded explicitly as implementations may override the default
+    @Override
+    public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
+        record(target -> target.addScreenSizeProvider(clazz, provider));
+    }
+
+    @Override
+    public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
+        record(target -> target.addExclusionZoneProvider(clazz, provider));
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        return viewer;
+    }
+
+    @Override
+    public String toString() {
+        return "Buffering plugin context for " + viewer;
+    }
+
+    /**
+     * An asynchronous generator that was started before being replayed.
+     * Replaying passes these on as the generator, so that wrappers can tell how long the generator took on its own.
+     */
+    public interface StartedAsyncGenerator extends Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> {
+        /**
+         * Returns the time from starting the generator until its future completed, or until now if it hasn't completed yet.
+         */
+        long getNanos();
+    }
+
+    private static final class AsyncGenerator implements StartedAsyncGenerator {
+        private final Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator;
+        private @Nullable CompletableFuture<List<TlaRecipe>> future;
+        private volatile long start;
+        private volatile long end;
+
+        private AsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+            this.generator = generator;
+        }
+
+        private synchronized CompletableFuture<List<TlaRecipe>> start(Executor executor) {
+            if (future != null) return future;
+            start = System.nanoTime();
+            future = CompletableFuture.supplyAsync(() -> generator.apply(MinecraftClient.getInstance()), executor)
+                    .thenCompose(Function.identity())
+                    .whenComplete((recipes, error) -> end = System.nanoTime());
+            return future;
+        }
+
+        @Override
+        public synchronized CompletableFuture<List<TlaRecipe>> apply(MinecraftClient client) {
+            if (future == null) throw new IllegalStateException("Asynchronous generator was never started");
+            return future;
+        }
+
+        @Override
+        public long getNanos() {
+            var end = this.end;
+            return (end == 0 ? System.nanoTime() : end) - start;
+        }
+    }
+}
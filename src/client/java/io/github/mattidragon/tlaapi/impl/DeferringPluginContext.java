@@ -0,0 +1,271 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.StackDragHandler;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Forwards registrations of a single plugin to an implementation, running custom generators in the background as soon as they are committed.
+ * Generators that finish within the {@link GeneratorWatchdog budget} add their recipes as usual.
+ * The budget is shared by every generator of a {@link DeferredLoad load}, so the viewer never waits longer than the budget in total.
+ * Slower generators are left to finish while the recipe viewer loads, and their recipes are added once they are done, unless the viewer was reloaded in the meantime.
+ * This relies on {@link #addRefreshableGenerator refreshable generators}, so implementations that can't add recipes later wait for the generator instead.
+ * Only used for {@link io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin#isParallelSafe() parallel safe} plugins, when enabled using the {@code tla-api.deferSlowGenerators} system property.
+ */
+public class DeferringPluginContext implements PluginContext {
+    public static final boolean ENABLED = Boolean.getBoolean("tla-api.deferSlowGenerators");
+
+    private final PluginContext delegate;
+    private final DeferredLoad load;
+
+    public DeferringPluginContext(PluginContext delegate, DeferredLoad load) {
+        this.delegate = delegate;
+        this.load = load;
+    }
+
+    @Override
+    public void addCategory(TlaCategory category) {
+        delegate.addCategory(category);
+    }
+
+    @Override
+    public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
+        delegate.addWorkstation(category, workstations);
+    }
+
+    // Recipe generators run once per recipe, so there is no single slow call to defer
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        delegate.addRecipeGenerator(type, generator);
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        delegate.addMultiRecipeGenerator(type, generator);
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        if (GeneratorWatchdog.BUDGET_MILLIS <= 0) {
+            delegate.addGenerator(generator);
+            return;
+        }
+        defer(generator, describe(generator));
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        if (GeneratorWatchdog.BUDGET_MILLIS <= 0) {
+            delegate.addStreamingGenerator(generator);
+            return;
+        }
+        // The sink can't be called once the generator is deferred, so the recipes are collected instead
+        defer(client -> {
+            var recipes = new ArrayList<TlaRecipe>();
+            generator.accept(client, recipes::add);
+            return recipes;
+        }, describe(generator));
+    }
+
+    private void defer(Function<MinecraftClient, List<TlaRecipe>> generator, String description) {
+        var deferred = new DeferredGenerator(generator, load, description);
+        deferred.handle = delegate.addRefreshableGenerator(deferred::generate);
+    }
+
+    // Matches the name the watchdog logs for the generator
+    private static String describe(Object generator) {
+        return generator instanceof ReportingPluginContext.ReportedGenerator reported ? reported.getStats().toString() : "Generator";
+    }
+
+    @Override
+    public void addAsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+        delegate.addAsyncGenerator(generator);
+    }
+
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        return delegate.addRefreshableRecipeGenerator(type, generator);
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        return delegate.addRefreshableGenerator(generator);
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        delegate.addDynamicGenerator(generator);
+    }
+
+    @Override
+    public void addRecipeFilter(Predicate<TlaRecipe> filter) {
+        delegate.addRecipeFilter(filter);
+    }
+
+    @Override
+    public void addDerivedGenerator(DerivedRecipeGenerator generator) {
+        delegate.addDerivedGenerator(generator);
+    }
+
+    @Override
+    public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addScreenHandlerClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
+        delegate.addStackDragHandler(clazz, handler);
+    }
+
+    @Override
+    public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
+        delegate.addScreenSizeProvider(clazz, provider);
+    }
+
+    @Override
+    public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
+        delegate.addExclusionZoneProvider(clazz, provider);
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        return delegate.getActiveViewer();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * The deferred generators of a single load into an implementation.
+     * Its budget starts when the first generator is waited for, and every generator of the load waits until the same deadline.
+     * Beginning another load for the same viewer makes this one stale, so generators finishing later don't refresh the reloaded viewer.
+     */
+    public static final class DeferredLoad {
+        private static final Map<RecipeViewer, DeferredLoad> CURRENT = new HashMap<>();
+
+        private final RecipeViewer viewer;
+        private long deadline;
+        private boolean started;
+
+        private DeferredLoad(RecipeViewer viewer) {
+            this.viewer = viewer;
+        }
+
+        public static DeferredLoad begin(RecipeViewer viewer) {
+            var load = new DeferredLoad(viewer);
+            synchronized (CURRENT) {
+                CURRENT.put(viewer, load);
+            }
+            return load;
+        }
+
+        private boolean isCurrent() {
+            synchronized (CURRENT) {
+                return CURRENT.get(viewer) == this;
+            }
+        }
+
+        private synchronized long getRemainingNanos() {
+            if (!started) {
+                started = true;
+                deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(GeneratorWatchdog.BUDGET_MILLIS);
+            }
+            return Math.max(0, deadline - System.nanoTime());
+        }
+    }
+
+    private static final class DeferredGenerator {
+        private final CompletableFuture<List<TlaRecipe>> future;
+        private final DeferredLoad load;
+        private final String description;
+        private boolean generated;
+        // Set once the implementation returns the handle, which is after the first run if it runs generators as they are added
+        private volatile @Nullable GeneratorHandle handle;
+
+        private DeferredGenerator(Function<MinecraftClient, List<TlaRecipe>> generator, DeferredLoad load, String description) {
+            this.load = load;
+            this.description = description;
+            this.future = CompletableFuture.supplyAsync(() -> generator.apply(MinecraftClient.getInstance()), TlaApi.ASYNC_GENERATOR_EXECUTOR);
+        }
+
+        private synchronized List<TlaRecipe> generate(MinecraftClient client) {
+            if (generated) {
+                // Refreshed once the generator finished
+                return future.isDone() ? join(future) : List.of();
+            }
+            generated = true;
+            var handle = this.handle;
+            if (handle == null || handle == GeneratorHandle.UNSUPPORTED) {
+                // The recipes couldn't be added later, so the generator is waited for
+                return join(future);
+            }
+
+            try {
+                return future.get(load.getRemainingNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                TlaApi.LOGGER.info("{} is over budget, adding its recipes once it finishes", description);
+                future.whenComplete((recipes, error) -> {
+                    if (error != null) {
+                        TlaApi.LOGGER.error("Error in deferred {}", description, error);
+                    } else {
+                        client.execute(() -> {
+                            // Recipes of a stale load would be added to the reloaded viewer
+                            if (load.isCurrent()) handle.refresh();
+                        });
+                    }
+                });
+                return List.of();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for generator", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw new RuntimeException(e.getCause());
+            }
+        }
+
+        private static List<TlaRecipe> join(CompletableFuture<List<TlaRecipe>> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+    }
+}
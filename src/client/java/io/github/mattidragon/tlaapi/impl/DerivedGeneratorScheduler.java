@@ -0,0 +1,150 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.snapshot.WarmStartSession;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.util.Util;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs the derived generators of every plugin in dependency order.
+ * A generator depends on every other generator that creates recipes in one of the categories it reads.
+ * Generators are split into levels that only depend on earlier levels. The generators of a level run concurrently when parallel loading is enabled,
+ * while their recipes are always passed on in registration order from the calling thread.
+ * Generators of plugins that aren't parallel safe always run on the calling thread.
+ */
+public class DerivedGeneratorScheduler {
+    private final List<List<Entry>> levels;
+
+    /**
+     * @throws IllegalStateException If the generators depend on each other in a cycle.
+     */
+    public DerivedGeneratorScheduler(List<Entry> generators) {
+        this.levels = schedule(generators);
+    }
+
+    private static List<List<Entry>> schedule(List<Entry> generators) {
+        var dependencies = new ArrayList<List<Integer>>(generators.size());
+        for (int i = 0; i < generators.size(); i++) {
+            var sources = generators.get(i).generator().getSourceCategories();
+            var generatorDependencies = new ArrayList<Integer>();
+            for (int j = 0; j < generators.size(); j++) {
+                // A generator reading its own categories only sees the recipes that existed before it
+                if (i != j && !Collections.disjoint(sources, generators.get(j).generator().getTargetCategories())) {
+                    generatorDependencies.add(j);
+                }
+            }
+            dependencies.add(generatorDependencies);
+        }
+
+        var levels = new ArrayList<List<Entry>>();
+        var done = new boolean[generators.size()];
+        var remaining = generators.size();
+        while (remaining > 0) {
+            var level = new ArrayList<Integer>();
+            for (int i = 0; i < generators.size(); i++) {
+                if (!done[i] && dependencies.get(i).stream().allMatch(dependency -> done[dependency])) {
+                    level.add(i);
+                }
+            }
+            if (level.isEmpty()) {
+                var cycle = new ArrayList<DerivedRecipeGenerator>();
+                for (int i = 0; i < generators.size(); i++) {
+                    if (!done[i]) cycle.add(generators.get(i).generator());
+                }
+                throw new IllegalStateException("Derived generators depend on each other in a cycle: " + cycle);
+            }
+            for (var i : level) {
+                done[i] = true;
+            }
+            remaining -= level.size();
+            levels.add(level.stream().map(generators::get).toList());
+        }
+        return levels;
+    }
+
+    public boolean isEmpty() {
+        return levels.isEmpty();
+    }
+
+    /**
+     * Returns every category read by at least one generator.
+     */
+    public Set<TlaCategory> getSourceCategories() {
+        var categories = new HashSet<TlaCategory>();
+        for (var level : levels) {
+            for (var entry : level) {
+                categories.addAll(entry.generator().getSourceCategories());
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Runs every generator.
+     * @param recipes Provides the recipes of a category. Only called from the calling thread, so implementations can read their registries.
+     * @param sink Receives the created recipes. Only called from the calling thread.
+     */
+    public void run(MinecraftClient client, Function<TlaCategory, List<TlaRecipe>> recipes, Consumer<TlaRecipe> sink) {
+        for (var level : levels) {
+            // Sources are read up front, as generators may run on worker threads.
+            // Recipes restored from a warm start are replaced by the real ones, as generators may depend on their class.
+            var sources = new HashMap<TlaCategory, List<TlaRecipe>>();
+            for (var entry : level) {
+                for (var category : entry.generator().getSourceCategories()) {
+                    sources.computeIfAbsent(category, key -> recipes.apply(key).stream().map(WarmStartSession::unwrap).toList());
+                }
+            }
+
+            var results = new ArrayList<CompletableFuture<List<TlaRecipe>>>(level.size());
+            for (var entry : level) {
+                if (TlaApi.PARALLEL_LOADING && level.size() > 1 && entry.parallelSafe()) {
+                    results.add(CompletableFuture.supplyAsync(() -> generate(entry, client, sources), Util.getMainWorkerExecutor()));
+                } else {
+                    results.add(CompletableFuture.completedFuture(generate(entry, client, sources)));
+                }
+            }
+            for (var result : results) {
+                try {
+                    result.join().forEach(sink);
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof RuntimeException cause) throw cause;
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static List<TlaRecipe> generate(Entry entry, MinecraftClient client, Map<TlaCategory, List<TlaRecipe>> sources) {
+        var generator = entry.generator();
+        var allowed = generator.getSourceCategories();
+        var tracked = GeneratorWatchdog.start(entry.stats());
+        var start = System.nanoTime();
+        List<TlaRecipe> recipes;
+        try {
+            recipes = List.copyOf(generator.generate(client, category -> {
+                if (!allowed.contains(category)) throw new IllegalArgumentException("Category " + category.getId() + " is not a source of " + generator);
+                return sources.get(category);
+            }));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error in derived generator " + generator, e);
+        } finally {
+            GeneratorWatchdog.stop(tracked);
+        }
+        entry.stats().record(System.nanoTime() - start, recipes.size());
+        return recipes;
+    }
+
+    /**
+     * A derived generator and the stats its runs are recorded to.
+     * @param parallelSafe Whether the plugin that registered the generator is {@link io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin#isParallelSafe() parallel safe}.
+     */
+    public record Entry(DerivedRecipeGenerator generator, LoadReport.GeneratorStats stats, boolean parallelSafe) {}
+}
@@ -0,0 +1,41 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the recipes of the categories derived generators read, for implementations that can't provide their recipes by category.
+ * Only recipes that were kept by the {@link FilteringPluginContext} are collected.
+ * Thread-safe, as generators may run concurrently.
+ */
+public class DerivedGeneratorSources {
+    private final Set<TlaCategory> categories;
+    private final Map<TlaCategory, List<TlaRecipe>> recipes = new ConcurrentHashMap<>();
+
+    public DerivedGeneratorSources(Set<TlaCategory> categories) {
+        this.categories = categories;
+    }
+
+    public void add(TlaRecipe recipe) {
+        var category = recipe.getCategory();
+        if (!categories.contains(category)) return;
+        var categoryRecipes = recipes.computeIfAbsent(category, key -> new ArrayList<>());
+        synchronized (categoryRecipes) {
+            categoryRecipes.add(recipe);
+        }
+    }
+
+    public List<TlaRecipe> get(TlaCategory category) {
+        var categoryRecipes = recipes.get(category);
+        if (categoryRecipes == null) return List.of();
+        synchronized (categoryRecipes) {
+            return List.copyOf(categoryRecipes);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.StackDragHandler;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Forwards registrations to an implementation, dropping generated recipes that are pruned by a recipe filter or that are exact duplicates of earlier ones.
+ * Recipes are dropped before the implementation converts them, so they cost nothing beyond the checks.
+ * A single pruner and deduplicator is shared by every plugin of a load, as filters and duplicates usually come from different plugins.
+ * Recipes of refreshable and dynamic generators run after the load are only deduplicated among themselves, see {@link RecipeDeduplicator#distinct}.
+ * Implementations that {@link ReusingPluginContext reuse recipes} get their recipe, multi-recipe and custom generators unfiltered and check the recipes themselves.
+ */
+public class FilteringPluginContext implements PluginContext {
+    private final PluginContext delegate;
+    private final RecipePruner pruner;
+    private final RecipeDeduplicator deduplicator;
+    private final @Nullable DerivedGeneratorSources sources;
+    private final boolean filterGenerators;
+
+    /**
+     * @param sources Receives every kept recipe, if the implementation can't provide the sources of derived generators itself.
+     */
+    public FilteringPluginContext(PluginContext delegate, RecipePruner pruner, RecipeDeduplicator deduplicator, @Nullable DerivedGeneratorSources sources) {
+        this.delegate = delegate;
+        this.pruner = pruner;
+        this.deduplicator = deduplicator;
+        this.sources = sources;
+        this.filterGenerators = !(delegate instanceof ReusingPluginContext reusing && reusing.isReusingRecipes());
+    }
+
+    @Override
+    public void addCategory(TlaCategory category) {
+        delegate.addCategory(category);
+    }
+
+    @Override
+    public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
+        delegate.addWorkstation(category, workstations);
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        if (!filterGenerators) {
+            delegate.addRecipeGenerator(type, generator);
+            return;
+        }
+        delegate.addRecipeGenerator(type, entry -> {
+            var recipe = generator.apply(entry);
+            return recipe == null || keep(recipe) ? recipe : null;
+        });
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        delegate.addMultiRecipeGenerator(type, filterGenerators ? (entry, sink) -> generator.accept(entry, filter(sink)) : generator);
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        delegate.addGenerator(filterGenerators ? client -> filter(generator.apply(client)) : generator);
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        delegate.addStreamingGenerator(filterGenerators ? (client, sink) -> generator.accept(client, filter(sink)) : generator);
+    }
+
+    @Override
+    public void addAsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+        delegate.addAsyncGenerator(filterGenerators ? client -> generator.apply(client).thenApply(this::filter) : generator);
+    }
+
+    private boolean keep(TlaRecipe recipe) {
+        if (!pruner.test(recipe) || !deduplicator.add(recipe)) return false;
+        if (sources != null) sources.add(recipe);
+        return true;
+    }
+
+    private List<TlaRecipe> filter(List<TlaRecipe> recipes) {
+        return recipes.stream().filter(this::keep).toList();
+    }
+
+    private Consumer<TlaRecipe> filter(Consumer<TlaRecipe> sink) {
+        return recipe -> {
+            if (keep(recipe)) sink.accept(recipe);
+        };
+    }
+
+    private List<TlaRecipe> prune(List<TlaRecipe> recipes) {
+        if (pruner.isEmpty()) return recipes;
+        return recipes.stream().filter(pruner::test).toList();
+    }
+
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        return delegate.addRefreshableRecipeGenerator(type, entry -> {
+            var recipe = generator.apply(entry);
+            return recipe == null || keep(recipe) ? recipe : null;
+        });
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        return delegate.addRefreshableGenerator(client -> deduplicator.distinct(prune(generator.apply(client))));
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        delegate.addDynamicGenerator(new DynamicRecipeGenerator() {
+            @Override
+            public List<TlaRecipe> getRecipesFor(TlaStack stack) {
+                return deduplicator.distinct(prune(generator.getRecipesFor(stack)));
+            }
+
+            @Override
+            public List<TlaRecipe> getUsagesFor(TlaStack stack) {
+                return deduplicator.distinct(prune(generator.getUsagesFor(stack)));
+            }
+        });
+    }
+
+    // Already part of the pruner, as filters are collected before anything is committed
+    @Override
+    public void addRecipeFilter(Predicate<TlaRecipe> filter) {
+        delegate.addRecipeFilter(filter);
+    }
+
+    // Already part of the scheduler, as derived generators are collected before anything is committed
+    @Override
+    public void addDerivedGenerator(DerivedRecipeGenerator generator) {
+        delegate.addDerivedGenerator(generator);
+    }
+
+    @Override
+    public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addScreenHandlerClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
+        delegate.addStackDragHandler(clazz, handler);
+    }
+
+    @Override
+    public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
+        delegate.addScreenSizeProvider(clazz, provider);
+    }
+
+    @Override
+    public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
+        delegate.addExclusionZoneProvider(clazz, provider);
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        return delegate.getActiveViewer();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
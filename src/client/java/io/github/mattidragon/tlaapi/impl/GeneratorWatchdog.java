@@ -0,0 +1,121 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs generator calls that run over their time budget, along with a sample of their stack so that the slow code can be found.
+ * Calls are tracked in a slot per thread, so tracking a call only costs a few writes. A single daemon thread checks the slots periodically.
+ * Calls are only tracked while a load is {@link #beginLoad open}, and the thread stops once no load is open anymore.
+ * The budget is set in milliseconds using the {@code tla-api.generatorBudget} system property. A budget of 0 disables the watchdog.
+ */
+public final class GeneratorWatchdog {
+    public static final long BUDGET_MILLIS = Long.getLong("tla-api.generatorBudget", 2000);
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(BUDGET_MILLIS);
+    private static final Set<Slot> SLOTS = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Slot> SLOT = ThreadLocal.withInitial(GeneratorWatchdog::createSlot);
+    private static @Nullable Thread watchdog;
+    // Written under the class lock, read without it by every tracked call
+    private static volatile int openLoads;
+
+    private GeneratorWatchdog() {}
+
+    /**
+     * Marks a load as open, starting the watchdog thread if needed. Every call has to be followed by {@link #endLoad}.
+     */
+    public static synchronized void beginLoad() {
+        if (BUDGET_NANOS <= 0) return;
+        openLoads++;
+        if (watchdog == null) {
+            watchdog = Thread.ofPlatform().name("TLA Generator Watchdog").daemon().start(GeneratorWatchdog::run);
+        }
+    }
+
+    public static synchronized void endLoad() {
+        if (BUDGET_NANOS <= 0) return;
+        openLoads--;
+    }
+
+    /**
+     * Starts tracking a generator call on the current thread.
+     * Calls made while another call is tracked on the thread are part of the outer call and aren't tracked separately.
+     * @return Whether the call is tracked, which has to be passed to {@link #stop}.
+     */
+    public static boolean start(LoadReport.GeneratorStats generator) {
+        if (BUDGET_NANOS <= 0 || openLoads == 0) return false;
+        var slot = SLOT.get();
+        if (slot.generator != null) return false;
+        slot.reported = false;
+        slot.start = System.nanoTime();
+        slot.generator = generator;
+        return true;
+    }
+
+    public static void stop(boolean tracked) {
+        if (tracked) SLOT.get().generator = null;
+    }
+
+    private static Slot createSlot() {
+        var slot = new Slot(Thread.currentThread());
+        SLOTS.add(slot);
+        return slot;
+    }
+
+    private static void run() {
+        // Checking four times per budget keeps overruns from being noticed much later than they happen
+        var interval = Math.max(BUDGET_MILLIS / 4, 10);
+        while (true) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                synchronized (GeneratorWatchdog.class) {
+                    watchdog = null;
+                }
+                return;
+            }
+            synchronized (GeneratorWatchdog.class) {
+                // Calls still running from the last load are no longer checked, which only loses their warning
+                if (openLoads == 0) {
+                    watchdog = null;
+                    return;
+                }
+            }
+            for (var slot : SLOTS) {
+                if (!slot.thread.isAlive()) {
+                    SLOTS.remove(slot);
+                    continue;
+                }
+                slot.check();
+            }
+        }
+    }
+
+    private static final class Slot {
+        private final Thread thread;
+        private volatile @Nullable LoadReport.GeneratorStats generator;
+        private volatile long start;
+        private volatile boolean reported;
+
+        private Slot(Thread thread) {
+            this.thread = thread;
+        }
+
+        private void check() {
+            var generator = this.generator;
+            if (generator == null || reported) return;
+            var start = this.start;
+            var elapsed = System.nanoTime() - start;
+            if (elapsed < BUDGET_NANOS) return;
+            var sample = new Throwable("Stack sample of " + thread.getName());
+            sample.setStackTrace(thread.getStackTrace());
+            // The call may have finished while sampling, in which case the sample belongs to other code
+            if (this.generator != generator || this.start != start) return;
+            reported = true;
+            generator.recordOverrun();
+            TlaApi.LOGGER.warn("{} has been running for {} ms, over its budget of {} ms", generator, TimeUnit.NANOSECONDS.toMillis(elapsed), BUDGET_MILLIS, sample);
+        }
+    }
+}
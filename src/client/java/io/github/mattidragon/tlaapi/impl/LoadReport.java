@@ -0,0 +1,204 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects timings of a single recipe viewer reload.
+ * Once the viewer has finished loading the report is logged and written to {@code tla-api/load-report-<viewer>.json} in the game directory.
+ * Everything is thread-safe as plugins and generators may run on worker threads.
+ */
+public class LoadReport {
+    private final RecipeViewer viewer;
+    private final long start = System.nanoTime();
+    private final List<PluginStats> plugins = Collections.synchronizedList(new ArrayList<>());
+    private final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());
+
+    public LoadReport(RecipeViewer viewer) {
+        this.viewer = viewer;
+    }
+
+    public RecipeViewer getViewer() {
+        return viewer;
+    }
+
+    public PluginStats addPlugin(String name) {
+        var stats = new PluginStats(name);
+        plugins.add(stats);
+        return stats;
+    }
+
+    /**
+     * Runs and times a phase of the implementation, such as registering displays.
+     */
+    public void time(String phase, Runnable action) {
+        var start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            phases.add(new Phase(phase, System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Logs the report and writes it to the game directory.
+     */
+    public void finish() {
+        var total = System.nanoTime() - start;
+        List<PluginStats> plugins;
+        List<Phase> phases;
+        synchronized (this.plugins) {
+            plugins = List.copyOf(this.plugins);
+        }
+        synchronized (this.phases) {
+            phases = List.copyOf(this.phases);
+        }
+
+        var table = new StringBuilder();
+        table.append("TLA load report for %s, took %d ms in total".formatted(viewer, toMillis(total)));
+        table.append("\n  %-60s %10s %10s %10s".formatted("Plugin / generator", "Register", "Commit", "Recipes"));
+        for (var plugin : plugins) {
+            table.append("\n  %-60s %8d ms %8d ms %10d".formatted(plugin.name, toMillis(plugin.registerNanos.get()), toMillis(plugin.commitNanos.get()), plugin.getRecipeCount()));
+            for (var generator : plugin.getGenerators()) {
+                var description = generator.overruns.sum() == 0 ? generator.description : generator.description + " (over budget)";
+                table.append("\n    %-58s %8d ms %10s %10d".formatted(description, toMillis(generator.nanos.sum()), "", generator.recipes.sum()));
+            }
+        }
+        for (var phase : phases) {
+            table.append("\n  %-60s %8d ms".formatted("Phase: " + phase.name, toMillis(phase.nanos)));
+        }
+        TlaApi.LOGGER.info(table.toString());
+
+        try {
+            var file = FabricLoader.getInstance().getGameDir().resolve("tla-api").resolve("load-report-" + viewer.id() + ".json");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, new GsonBuilder().setPrettyPrinting().create().toJson(toJson(total, plugins, phases)));
+        } catch (IOException e) {
+            TlaApi.LOGGER.warn("Failed to write TLA load report", e);
+        }
+    }
+
+    private JsonObject toJson(long total, List<PluginStats> plugins, List<Phase> phases) {
+        var json = new JsonObject();
+        json.addProperty("viewer", viewer.id());
+        json.addProperty("totalMs", toMillis(total));
+
+        var pluginsJson = new JsonArray();
+        for (var plugin : plugins) {
+            var pluginJson = new JsonObject();
+            pluginJson.addProperty("name", plugin.name);
+            pluginJson.addProperty("registerMs", toMillis(plugin.registerNanos.get()));
+            pluginJson.addProperty("commitMs", toMillis(plugin.commitNanos.get()));
+            pluginJson.addProperty("recipes", plugin.getRecipeCount());
+
+            var generatorsJson = new JsonArray();
+            for (var generator : plugin.getGenerators()) {
+                var generatorJson = new JsonObject();
+                generatorJson.addProperty("description", generator.description);
+                generatorJson.addProperty("timeMs", toMillis(generator.nanos.sum()));
+                generatorJson.addProperty("recipes", generator.recipes.sum());
+                generatorJson.addProperty("overruns", generator.overruns.sum());
+                generatorsJson.add(generatorJson);
+            }
+            pluginJson.add("generators", generatorsJson);
+            pluginsJson.add(pluginJson);
+        }
+        json.add("plugins", pluginsJson);
+
+        var phasesJson = new JsonArray();
+        for (var phase : phases) {
+            var phaseJson = new JsonObject();
+            phaseJson.addProperty("name", phase.name);
+            phaseJson.addProperty("timeMs", toMillis(phase.nanos));
+            phasesJson.add(phaseJson);
+        }
+        json.add("phases", phasesJson);
+        return json;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private record Phase(String name, long nanos) {}
+
+    public static final class PluginStats {
+        private final String name;
+        private final AtomicLong registerNanos = new AtomicLong();
+        private final AtomicLong commitNanos = new AtomicLong();
+        private final List<GeneratorStats> generators = Collections.synchronizedList(new ArrayList<>());
+
+        private PluginStats(String name) {
+            this.name = name;
+        }
+
+        public void addRegisterTime(long nanos) {
+            registerNanos.addAndGet(nanos);
+        }
+
+        public void addCommitTime(long nanos) {
+            commitNanos.addAndGet(nanos);
+        }
+
+        public GeneratorStats addGenerator(String description) {
+            var stats = new GeneratorStats(name, description);
+            generators.add(stats);
+            return stats;
+        }
+
+        private List<GeneratorStats> getGenerators() {
+            synchronized (generators) {
+                return List.copyOf(generators);
+            }
+        }
+
+        private long getRecipeCount() {
+            return getGenerators().stream().mapToLong(generator -> generator.recipes.sum()).sum();
+        }
+    }
+
+    /**
+     * Timings of a single generator. Recipe generators are called once per recipe, so time and count accumulate over all calls.
+     */
+    public static final class GeneratorStats {
+        private final String plugin;
+        private final String description;
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder recipes = new LongAdder();
+        private final LongAdder overruns = new LongAdder();
+
+        private GeneratorStats(String plugin, String description) {
+            this.plugin = plugin;
+            this.description = description;
+        }
+
+        public void record(long nanos, int recipes) {
+            this.nanos.add(nanos);
+            this.recipes.add(recipes);
+        }
+
+        /**
+         * Records a call that ran over the {@link GeneratorWatchdog generator budget}.
+         */
+        public void recordOverrun() {
+            overruns.increment();
+        }
+
+        @Override
+        public String toString() {
+            return description + " of " + plugin;
+        }
+    }
+}
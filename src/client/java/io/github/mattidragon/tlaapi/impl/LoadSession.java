@@ -0,0 +1,104 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.snapshot.WarmStartSession;
+import net.minecraft.client.MinecraftClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * State of a single plugin load into an implementation, returned by {@link TlaApi#loadPlugins}.
+ * Implementations should {@link #runDerivedGenerators run derived generators} once they have run every other generator, and then {@link #finish()} the session.
+ */
+public class LoadSession {
+    private final LoadReport report;
+    private final @Nullable WarmStartSession warmStart;
+    private final RecipePruner pruner;
+    private final RecipeDeduplicator deduplicator;
+    private final DerivedGeneratorScheduler derivedGenerators;
+    private final @Nullable DerivedGeneratorSources sources;
+
+    LoadSession(LoadReport report, @Nullable WarmStartSession warmStart, RecipePruner pruner, RecipeDeduplicator deduplicator, DerivedGeneratorScheduler derivedGenerators, @Nullable DerivedGeneratorSources sources) {
+        this.report = report;
+        this.warmStart = warmStart;
+        this.pruner = pruner;
+        this.deduplicator = deduplicator;
+        this.derivedGenerators = derivedGenerators;
+        this.sources = sources;
+    }
+
+    public LoadReport getReport() {
+        return report;
+    }
+
+    /**
+     * Runs and times a phase of the implementation.
+     * @see LoadReport#time
+     */
+    public void time(String phase, Runnable action) {
+        report.time(phase, action);
+    }
+
+    /**
+     * Runs the derived generators of every plugin, which read the recipes other generators added to the implementation.
+     * Created recipes are pruned and deduplicated like those of other generators before reaching the sink.
+     * @param recipes Provides the recipes added to the implementation in a category. Only called from the calling thread.
+     * @param sink Adds a recipe to the implementation. Only called from the calling thread.
+     */
+    public void runDerivedGenerators(MinecraftClient client, Function<TlaCategory, List<TlaRecipe>> recipes, Consumer<TlaRecipe> sink) {
+        if (derivedGenerators.isEmpty()) return;
+        time("derivedGenerators", () -> derivedGenerators.run(client, recipes, recipe -> {
+            if (keep(recipe)) sink.accept(recipe);
+        }));
+    }
+
+    /**
+     * Adds a generator to the implementation that runs the derived generators of every plugin, reading the recipes collected from the generators that ran before it.
+     * The implementation has to run its generators in registration order for derived generators to see every recipe.
+     * Requires the session to be {@link TlaApi#loadPlugins(PluginContext, boolean) collecting sources}.
+     */
+    public void addDerivedGenerators(PluginContext implementation) {
+        if (derivedGenerators.isEmpty()) return;
+        if (sources == null) throw new IllegalStateException("Sources of derived generators weren't collected");
+        implementation.addGenerator(client -> {
+            var recipes = new ArrayList<TlaRecipe>();
+            // Created recipes are sources of later levels
+            runDerivedGenerators(client, sources::get, recipe -> {
+                sources.add(recipe);
+                recipes.add(recipe);
+            });
+            return recipes;
+        });
+    }
+
+    /**
+     * Returns whether the recipe passes the recipe filters of this load and isn't a duplicate of an earlier one.
+     * Used by implementations that {@link ReusingPluginContext reuse recipes}, as those skip the filtering of generators.
+     * Thread-safe.
+     */
+    public boolean keep(TlaRecipe recipe) {
+        return pruner.test(recipe) && deduplicator.add(recipe);
+    }
+
+    /**
+     * Writes the load report, logs how many recipes were pruned or dropped as duplicates and updates the warm start snapshot if it changed.
+     * Also releases the registrations shared with other viewers once none of them needs them anymore, and stops watching generators for this load.
+     */
+    public void finish() {
+        GeneratorWatchdog.endLoad();
+        report.finish();
+        RegistrationSnapshot.finish(report.getViewer());
+        var pruned = pruner.getPruned();
+        if (pruned > 0) TlaApi.LOGGER.info("Pruned {} recipes for {}", pruned, report.getViewer());
+        var dropped = deduplicator.getDropped();
+        if (dropped > 0) TlaApi.LOGGER.info("Dropped {} duplicate recipes for {}", dropped, report.getViewer());
+        deduplicator.finish();
+        if (warmStart != null) warmStart.finish();
+    }
+}
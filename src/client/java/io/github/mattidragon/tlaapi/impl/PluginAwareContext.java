@@ -0,0 +1,18 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+
+/**
+ * Implemented by implementations that need to know which plugin registrations belong to.
+ */
+@ImplementationOnly
+public interface PluginAwareContext extends PluginContext {
+    /**
+     * Called before the registrations of each plugin are committed.
+     * Everything registered until the next call belongs to the plugin.
+     * @param pluginId A stable identifier of the plugin, made up of its mod id and class.
+     * @param parallelSafe Whether the plugin is {@link io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin#isParallelSafe() parallel safe}.
+     *                     Generators of plugins that aren't must only be run on the thread that commits them.
+     */
+    void beginPlugin(String pluginId, boolean parallelSafe);
+}
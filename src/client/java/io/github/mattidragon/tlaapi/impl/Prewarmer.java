@@ -0,0 +1,123 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import net.minecraft.client.MinecraftClient;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Registers plugins and starts running their generators as soon as recipes or tags are synced from the server,
+ * so that most of the work is done by the time the recipe viewer starts reloading.
+ * <p>
+ * Plugins can only be prewarmed if exactly one recipe viewer is installed, as the viewer is exposed to plugins during registration.
+ * Only {@link io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin#isParallelSafe() parallel safe} plugins have their generators run in the background.
+ * Any sync invalidates earlier prewarmed results, which are then discarded and their pending generators cancelled.
+ * Recipes and tags are usually synced right after one another, so prewarming waits for the client to handle the rest of its queued packets and only runs once for both.
+ * Controlled by the {@code tla-api.prewarm} system property.
+ */
+public final class Prewarmer {
+    public static final boolean ENABLED = Boolean.getBoolean("tla-api.prewarm");
+
+    private static int generation = 0;
+    private static boolean scheduled = false;
+    private static int loadedGeneration = -1;
+    private static @Nullable Prewarmed current;
+
+    private Prewarmer() {}
+
+    /**
+     * Called on the client thread whenever recipes or tags have been synced.
+     */
+    public static void onDataSynced() {
+        synchronized (Prewarmer.class) {
+            generation++;
+            discard();
+            if (!ENABLED || scheduled) return;
+            scheduled = true;
+        }
+        MinecraftClient.getInstance().send(Prewarmer::prewarm);
+    }
+
+    private static void prewarm() {
+        int startGeneration;
+        synchronized (Prewarmer.class) {
+            scheduled = false;
+            startGeneration = generation;
+            // The viewer may have reloaded before the prewarm got to run, in which case it has nothing left to do
+            if (loadedGeneration == startGeneration) return;
+        }
+
+        var viewers = TlaApi.getInstalledViewers();
+        var handler = MinecraftClient.getInstance().getNetworkHandler();
+        // Tags are also synced during the configuration phase, when recipes aren't available yet
+        if (viewers.size() != 1 || handler == null) return;
+        var viewer = viewers.getFirst();
+
+        RegisteredPlugins plugins;
+        try {
+            plugins = TlaApi.registerPlugins(viewer, (entrypoint, buffer) -> {
+                if (!entrypoint.isParallelSafe()) return buffer;
+                var prewarming = new PrewarmingPluginContext(viewer, handler.getRecipeManager());
+                buffer.startAsyncGenerators(TlaApi.ASYNC_GENERATOR_EXECUTOR);
+                buffer.replay(prewarming);
+                return prewarming;
+            });
+        } catch (RuntimeException e) {
+            TlaApi.LOGGER.warn("Failed to prewarm plugins, they will be loaded with the recipe viewer instead", e);
+            return;
+        }
+
+        var prewarmed = new Prewarmed(viewer, startGeneration, plugins);
+        synchronized (Prewarmer.class) {
+            if (generation == startGeneration) {
+                current = prewarmed;
+                return;
+            }
+        }
+        prewarmed.cancel();
+    }
+
+    /**
+     * Discards prewarmed plugins, for example when leaving a world.
+     */
+    public static synchronized void reset() {
+        generation++;
+        discard();
+    }
+
+    private static synchronized void discard() {
+        if (current != null) current.cancel();
+        current = null;
+    }
+
+    /**
+     * Returns a counter that changes whenever recipes or tags are synced or the client disconnects.
+     * Anything generated while the counter stays the same used the same data.
+     */
+    static synchronized int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Takes the prewarmed plugins for the viewer if they are still up-to-date.
+     * Each prewarm can only be used once.
+     */
+    static synchronized @Nullable RegisteredPlugins take(RecipeViewer viewer) {
+        var prewarmed = current;
+        current = null;
+        loadedGeneration = generation;
+        if (prewarmed == null) return null;
+        if (prewarmed.viewer != viewer || prewarmed.generation != generation) {
+            prewarmed.cancel();
+            return null;
+        }
+        return prewarmed.plugins;
+    }
+
+    private record Prewarmed(RecipeViewer viewer, int generation, RegisteredPlugins plugins) {
+        private void cancel() {
+            for (var plugin : plugins.plugins()) {
+                if (plugin.buffer() instanceof PrewarmingPluginContext prewarming) prewarming.cancel();
+            }
+        }
+    }
+}
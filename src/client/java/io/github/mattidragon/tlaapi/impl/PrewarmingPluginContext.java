@@ -0,0 +1,129 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A buffering plugin context that starts running generators on the worker pool as soon as they are registered.
+ * When replayed, generators are replaced with ones that return the results computed in the background,
+ * waiting for them if they haven't finished yet.
+ * Recipes that weren't known while prewarming are generated normally.
+ */
+public class PrewarmingPluginContext extends BufferingPluginContext {
+    private final RecipeManager recipeManager;
+    private final List<CompletableFuture<?>> started = new ArrayList<>();
+
+    public PrewarmingPluginContext(RecipeViewer viewer, RecipeManager recipeManager) {
+        super(viewer);
+        this.recipeManager = recipeManager;
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var results = start(() -> {
+            // Null results are meaningful, so a map that permits them is used
+            var recipes = new HashMap<Identifier, TlaRecipe>();
+            for (var entry : listAllOfType(type)) {
+                recipes.put(entry.id(), generator.apply(entry));
+            }
+            return recipes;
+        });
+        record(target -> target.addRecipeGenerator(type, entry -> {
+            var recipes = join(results);
+            return recipes.containsKey(entry.id()) ? recipes.get(entry.id()) : generator.apply(entry);
+        }));
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        var results = start(() -> {
+            var recipes = new HashMap<Identifier, List<TlaRecipe>>();
+            for (var entry : listAllOfType(type)) {
+                var entryRecipes = new ArrayList<TlaRecipe>();
+                generator.accept(entry, entryRecipes::add);
+                recipes.put(entry.id(), entryRecipes);
+            }
+            return recipes;
+        });
+        record(target -> target.addMultiRecipeGenerator(type, (entry, sink) -> {
+            var recipes = join(results).get(entry.id());
+            if (recipes == null) {
+                generator.accept(entry, sink);
+            } else {
+                recipes.forEach(sink);
+            }
+        }));
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        var results = start(() -> generator.apply(MinecraftClient.getInstance()));
+        record(target -> target.addGenerator(client -> join(results)));
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        var results = start(() -> {
+            var recipes = new ArrayList<TlaRecipe>();
+            generator.accept(MinecraftClient.getInstance(), recipes::add);
+            return recipes;
+        });
+        record(target -> target.addStreamingGenerator((client, sink) -> join(results).forEach(sink)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Recipe<?>> List<RecipeEntry<T>> listAllOfType(RecipeType<T> type) {
+        var entries = new ArrayList<RecipeEntry<T>>();
+        for (var entry : recipeManager.values()) {
+            if (entry.value().getType() == type) {
+                entries.add((RecipeEntry<T>) entry);
+            }
+        }
+        return entries;
+    }
+
+    private <T> CompletableFuture<T> start(Supplier<T> task) {
+        var future = CompletableFuture.supplyAsync(task, Util.getMainWorkerExecutor());
+        started.add(future);
+        return future;
+    }
+
+    /**
+     * Cancels the generators that haven't started running yet, as their results are no longer needed.
+     * Generators that are already running can't be interrupted and finish in the background.
+     */
+    void cancel() {
+        started.forEach(future -> future.cancel(false));
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Prewarming plugin context for " + getActiveViewer();
+    }
+}
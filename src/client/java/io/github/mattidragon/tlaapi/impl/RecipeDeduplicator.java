@@ -0,0 +1,79 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the contents of every recipe passed to an implementation during a single load, so that exact duplicates can be dropped.
+ * Recipes are compared by category, id, inputs, outputs and catalysts. How the gui is built is not compared,
+ * so recipes without an id are never dropped, as nothing tells them apart from recipes that only differ in their gui.
+ * Once the load is {@link #finish() finished} the tracked contents are released, and recipes created later are only compared among themselves.
+ * Thread-safe, as generators may run concurrently.
+ * Controlled by the {@code tla-api.dedupRecipes} system property.
+ */
+public class RecipeDeduplicator {
+    public static final boolean ENABLED = Boolean.getBoolean("tla-api.dedupRecipes");
+
+    private volatile @Nullable Set<Key> seen = ENABLED ? ConcurrentHashMap.newKeySet() : null;
+    private final AtomicInteger dropped = new AtomicInteger();
+
+    /**
+     * Returns whether the recipe should be kept, which is the case if no recipe with the same contents was seen before in this load.
+     */
+    public boolean add(TlaRecipe recipe) {
+        var seen = this.seen;
+        if (seen == null || recipe.getId() == null) return true;
+        if (seen.add(Key.of(recipe))) return true;
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Returns the recipes without duplicates, both of each other and of recipes seen before in this load.
+     * Used for generators that run again after the load, which can't be compared to the recipes of the load anymore.
+     */
+    public List<TlaRecipe> distinct(List<TlaRecipe> recipes) {
+        if (!ENABLED) return recipes;
+        var seen = this.seen;
+        var keys = new HashSet<Key>();
+        var distinct = new ArrayList<TlaRecipe>(recipes.size());
+        for (var recipe : recipes) {
+            if (recipe.getId() != null) {
+                var key = Key.of(recipe);
+                if (!keys.add(key) || seen != null && !seen.add(key)) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+            }
+            distinct.add(recipe);
+        }
+        return distinct;
+    }
+
+    /**
+     * Releases the contents of the recipes of the load.
+     */
+    public void finish() {
+        seen = null;
+    }
+
+    public int getDropped() {
+        return dropped.get();
+    }
+
+    private record Key(Identifier category, Identifier id, List<TlaIngredient> inputs, List<TlaStack> outputs, List<TlaIngredient> catalysts) {
+        private static Key of(TlaRecipe recipe) {
+            return new Key(recipe.getCategory().getId(), recipe.getId(), List.copyOf(recipe.getInputs()), List.copyOf(recipe.getOutputs()), List.copyOf(recipe.getCatalysts()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Applies the recipe filters of every plugin during a single load.
+ * Thread-safe, as generators may run concurrently.
+ */
+public class RecipePruner {
+    private final List<Predicate<TlaRecipe>> filters;
+    private final AtomicInteger pruned = new AtomicInteger();
+
+    public RecipePruner(List<Predicate<TlaRecipe>> filters) {
+        this.filters = List.copyOf(filters);
+    }
+
+    /**
+     * Returns whether the recipe passes every filter.
+     */
+    public boolean test(TlaRecipe recipe) {
+        for (var filter : filters) {
+            if (!filter.test(recipe)) {
+                pruned.incrementAndGet();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    public int getPruned() {
+        return pruned.get();
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin;
+
+import java.util.List;
+
+/**
+ * The buffered registrations of every plugin, ready to be committed to an implementation.
+ * @param plugins The plugins in the order they should be committed.
+ */
+record RegisteredPlugins(LoadReport report, List<Plugin> plugins) {
+    /**
+     * @param id A stable identifier of the plugin, made up of its mod id and class.
+     */
+    record Plugin(TlaApiPlugin entrypoint, String id, LoadReport.PluginStats stats, BufferingPluginContext buffer) {}
+}
@@ -0,0 +1,73 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Viewer-neutral registrations of plugins, shared between all installed recipe viewers.
+ * <p>
+ * When several recipe viewers are installed, each of them loads plugins separately.
+ * The registrations made while loading for the first viewer are recorded and replayed into the other viewers,
+ * which also shares the recipes created by generators, so every generator only runs once.
+ * Plugins that ask for the {@link io.github.mattidragon.tlaapi.api.plugin.PluginContext#getActiveViewer active viewer} while registering are registered separately for each viewer.
+ * A snapshot is only used while recipes and tags are unchanged, and only once per viewer.
+ * It is released once every installed viewer has loaded from it, so that the shared recipes don't outlive the loads they were made for.
+ */
+public final class RegistrationSnapshot {
+    private static @Nullable RegistrationSnapshot current;
+
+    private final int generation;
+    private final Set<RecipeViewer> usedBy = new HashSet<>();
+    private final Map<String, SharedPluginContext> plugins = new ConcurrentHashMap<>();
+
+    private RegistrationSnapshot(int generation) {
+        this.generation = generation;
+    }
+
+    /**
+     * Returns the snapshot that a load into the viewer should use and record to, or null if there's only one viewer to load into.
+     */
+    static synchronized @Nullable RegistrationSnapshot begin(RecipeViewer viewer) {
+        if (TlaApi.getInstalledViewers().size() < 2) return null;
+
+        var generation = Prewarmer.getGeneration();
+        if (current == null || current.generation != generation || current.usedBy.contains(viewer)) {
+            current = new RegistrationSnapshot(generation);
+        }
+        current.usedBy.add(viewer);
+        return current;
+    }
+
+    /**
+     * Releases the snapshot if no other viewer will load from it.
+     * Called when a load into the viewer is finished.
+     */
+    static synchronized void finish(RecipeViewer viewer) {
+        if (current == null || !current.usedBy.contains(viewer)) return;
+        if (current.generation != Prewarmer.getGeneration() || current.usedBy.containsAll(TlaApi.getInstalledViewers())) {
+            current = null;
+        }
+    }
+
+    /**
+     * Returns the registrations of a plugin if they were recorded for another viewer.
+     * Plugins can still become viewer specific after being recorded, by asking for the viewer from another thread while generating.
+     */
+    @Nullable SharedPluginContext get(String pluginId) {
+        var context = plugins.get(pluginId);
+        return context == null || context.isViewerSpecific() ? null : context;
+    }
+
+    /**
+     * Records the registrations of a plugin, unless they are specific to the viewer they were made for.
+     */
+    void put(String pluginId, SharedPluginContext context) {
+        if (context.isViewerSpecific()) return;
+        plugins.putIfAbsent(pluginId, context);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A generator handle given to plugins by buffering contexts.
+ * Forwards to the handles returned by every implementation the registration was replayed into.
+ */
+public class ReplayedGeneratorHandle implements GeneratorHandle {
+    private final List<GeneratorHandle> targets = new ArrayList<>();
+
+    public synchronized void addTarget(GeneratorHandle target) {
+        targets.add(target);
+    }
+
+    @Override
+    public boolean refresh() {
+        List<GeneratorHandle> targets;
+        synchronized (this) {
+            targets = List.copyOf(this.targets);
+        }
+        if (targets.isEmpty()) return false;
+
+        var refreshed = true;
+        for (var target : targets) {
+            // Every target is refreshed even if one fails, so that as many viewers as possible are up-to-date
+            refreshed &= target.refresh();
+        }
+        return refreshed;
+    }
+}
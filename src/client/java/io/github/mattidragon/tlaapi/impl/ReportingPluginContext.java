@@ -0,0 +1,253 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.StackDragHandler;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.registry.Registries;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Forwards registrations of a single plugin to an implementation, wrapping generators so that their time and output is recorded
+ * and calls running over the {@link GeneratorWatchdog budget} are logged.
+ * The wrapped generators record whenever the implementation runs them, which may be well after registration.
+ */
+public class ReportingPluginContext implements PluginContext {
+    private final PluginContext delegate;
+    private final LoadReport.PluginStats stats;
+    private int customGenerators = 0;
+
+    public ReportingPluginContext(PluginContext delegate, LoadReport.PluginStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public void addCategory(TlaCategory category) {
+        delegate.addCategory(category);
+    }
+
+    @Override
+    public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
+        delegate.addWorkstation(category, workstations);
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var generatorStats = stats.addGenerator("Recipe generator for " + Registries.RECIPE_TYPE.getId(type));
+        delegate.addRecipeGenerator(type, entry -> {
+            var tracked = GeneratorWatchdog.start(generatorStats);
+            var start = System.nanoTime();
+            try {
+                var recipe = generator.apply(entry);
+                generatorStats.record(System.nanoTime() - start, recipe == null ? 0 : 1);
+                return recipe;
+            } finally {
+                GeneratorWatchdog.stop(tracked);
+            }
+        });
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        var generatorStats = stats.addGenerator("Multi-recipe generator for " + Registries.RECIPE_TYPE.getId(type));
+        delegate.addMultiRecipeGenerator(type, (entry, sink) -> {
+            // Also includes the time the implementation spends handling each recipe, as that happens inside the sink
+            var count = new int[1];
+            var tracked = GeneratorWatchdog.start(generatorStats);
+            var start = System.nanoTime();
+            try {
+                generator.accept(entry, recipe -> {
+                    count[0]++;
+                    sink.accept(recipe);
+                });
+            } finally {
+                GeneratorWatchdog.stop(tracked);
+            }
+            generatorStats.record(System.nanoTime() - start, count[0]);
+        });
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        var generatorStats = stats.addGenerator("Custom generator #" + customGenerators++);
+        delegate.addGenerator(new ReportedFunction(generatorStats, client -> {
+            var tracked = GeneratorWatchdog.start(generatorStats);
+            var start = System.nanoTime();
+            try {
+                var recipes = generator.apply(client);
+                generatorStats.record(System.nanoTime() - start, recipes.size());
+                return recipes;
+            } finally {
+                GeneratorWatchdog.stop(tracked);
+            }
+        }));
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        var generatorStats = stats.addGenerator("Custom generator #" + customGenerators++ + " (streaming)");
+        delegate.addStreamingGenerator(new ReportedStreamingFunction(generatorStats, (client, sink) -> {
+            // Also includes the time the implementation spends handling each recipe, as that happens inside the sink
+            var count = new int[1];
+            var tracked = GeneratorWatchdog.start(generatorStats);
+            var start = System.nanoTime();
+            try {
+                generator.accept(client, recipe -> {
+                    count[0]++;
+                    sink.accept(recipe);
+                });
+            } finally {
+                GeneratorWatchdog.stop(tracked);
+            }
+            generatorStats.record(System.nanoTime() - start, count[0]);
+        }));
+    }
+
+    @Override
+    public void addAsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+        var generatorStats = stats.addGenerator("Custom generator #" + customGenerators++ + " (async)");
+        delegate.addAsyncGenerator(client -> {
+            var start = System.nanoTime();
+            return generator.apply(client).whenComplete((recipes, error) -> {
+                // Buffered generators are started before committing, so the time they took on their own is recorded instead
+                var nanos = generator instanceof BufferingPluginContext.StartedAsyncGenerator started ? started.getNanos() : System.nanoTime() - start;
+                generatorStats.record(nanos, recipes == null ? 0 : recipes.size());
+            });
+        });
+    }
+
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var generatorStats = stats.addGenerator("Refreshable recipe generator for " + Registries.RECIPE_TYPE.getId(type));
+        return delegate.addRefreshableRecipeGenerator(type, entry -> {
+            var tracked = GeneratorWatchdog.start(generatorStats);
+            var start = System.nanoTime();
+            try {
+                var recipe = generator.apply(entry);
+                generatorStats.record(System.nanoTime() - start, recipe == null ? 0 : 1);
+                return recipe;
+            } finally {
+                GeneratorWatchdog.stop(tracked);
+            }
+        });
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        var generatorStats = stats.addGenerator("Custom generator #" + customGenerators++ + " (refreshable)");
+        return delegate.addRefreshableGenerator(client -> {
+            var tracked = GeneratorWatchdog.start(generatorStats);
+            var start = System.nanoTime();
+            try {
+                var recipes = generator.apply(client);
+                generatorStats.record(System.nanoTime() - start, recipes.size());
+                return recipes;
+            } finally {
+                GeneratorWatchdog.stop(tracked);
+            }
+        });
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        delegate.addDynamicGenerator(generator);
+    }
+
+    @Override
+    public void addRecipeFilter(Predicate<TlaRecipe> filter) {
+        delegate.addRecipeFilter(filter);
+    }
+
+    @Override
+    public void addDerivedGenerator(DerivedRecipeGenerator generator) {
+        delegate.addDerivedGenerator(generator);
+    }
+
+    @Override
+    public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addScreenHandlerClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
+        delegate.addStackDragHandler(clazz, handler);
+    }
+
+    @Override
+    public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
+        delegate.addScreenSizeProvider(clazz, provider);
+    }
+
+    @Override
+    public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
+        delegate.addExclusionZoneProvider(clazz, provider);
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        return delegate.getActiveViewer();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+
+    /**
+     * A generator wrapped for reporting.
+     * Passed on as the generator, so that wrappers can name it in their own log messages.
+     */
+    public interface ReportedGenerator {
+        LoadReport.GeneratorStats getStats();
+    }
+
+    private record ReportedFunction(LoadReport.GeneratorStats stats, Function<MinecraftClient, List<TlaRecipe>> generator)
+            implements Function<MinecraftClient, List<TlaRecipe>>, ReportedGenerator {
+        @Override
+        public LoadReport.GeneratorStats getStats() {
+            return stats;
+        }
+
+        @Override
+        public List<TlaRecipe> apply(MinecraftClient client) {
+            return generator.apply(client);
+        }
+    }
+
+    private record ReportedStreamingFunction(LoadReport.GeneratorStats stats, BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator)
+            implements BiConsumer<MinecraftClient, Consumer<TlaRecipe>>, ReportedGenerator {
+        @Override
+        public LoadReport.GeneratorStats getStats() {
+            return stats;
+        }
+
+        @Override
+        public void accept(MinecraftClient client, Consumer<TlaRecipe> sink) {
+            generator.accept(client, sink);
+        }
+    }
+}
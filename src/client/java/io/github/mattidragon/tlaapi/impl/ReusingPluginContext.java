@@ -0,0 +1,16 @@
+package io.github.mattidragon.tlaapi.impl;
+
+/**
+ * Implemented by implementations that reuse the recipes of generators across loads.
+ * Reused recipes never pass through the generator again, so the implementation has to filter them itself.
+ * The {@link #beginPlugin owning plugin} allows reused recipes to be tied to the generator that created them.
+ */
+@ImplementationOnly
+public interface ReusingPluginContext extends PluginAwareContext {
+    /**
+     * Returns whether recipes are reused in this load.
+     * If they are, recipe, multi-recipe and custom generators are passed to the implementation unfiltered,
+     * and every recipe they create, whether reused or not, has to be checked with {@link LoadSession#keep}.
+     */
+    boolean isReusingRecipes();
+}
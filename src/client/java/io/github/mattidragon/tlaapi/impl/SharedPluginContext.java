@@ -0,0 +1,134 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.Unit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A buffering plugin context whose registrations can be replayed into several recipe viewers.
+ * Generators are wrapped so that each recipe is only generated once, with later replays reusing the same recipe objects.
+ * The context tracks whether the plugin asked for the active viewer, in which case its registrations may differ between viewers and can't be shared.
+ * <p>
+ * Plugins may also ask for the active viewer from within their generators. While a generator runs it is given the viewer it is generating for,
+ * and whatever it creates is kept for that viewer alone. Calls from other threads can't be attributed to a generator, so they make the whole plugin viewer specific.
+ */
+public class SharedPluginContext extends BufferingPluginContext {
+    private static final ThreadLocal<Generation> GENERATING = new ThreadLocal<>();
+
+    private volatile boolean viewerSpecific = false;
+
+    public SharedPluginContext(RecipeViewer viewer) {
+        super(viewer);
+    }
+
+    public boolean isViewerSpecific() {
+        return viewerSpecific;
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var recipes = new ConcurrentHashMap<Identifier, Optional<TlaRecipe>>();
+        record(target -> {
+            var viewer = target.getActiveViewer();
+            target.addRecipeGenerator(type, entry -> memoize(recipes, entry.id(), viewer, () -> Optional.ofNullable(generator.apply(entry))).orElse(null));
+        });
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        var recipes = new ConcurrentHashMap<Identifier, List<TlaRecipe>>();
+        record(target -> {
+            var viewer = target.getActiveViewer();
+            target.addMultiRecipeGenerator(type, (entry, sink) -> memoize(recipes, entry.id(), viewer, () -> {
+                var entryRecipes = new ArrayList<TlaRecipe>();
+                generator.accept(entry, entryRecipes::add);
+                return List.copyOf(entryRecipes);
+            }).forEach(sink));
+        });
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        var recipes = new ConcurrentHashMap<Unit, List<TlaRecipe>>();
+        record(target -> {
+            var viewer = target.getActiveViewer();
+            target.addGenerator(client -> memoize(recipes, Unit.INSTANCE, viewer, () -> generator.apply(client)));
+        });
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        // The recipes have to be kept for the next viewer anyway, so there's no point in streaming them
+        var recipes = new ConcurrentHashMap<Unit, List<TlaRecipe>>();
+        record(target -> {
+            var viewer = target.getActiveViewer();
+            target.addStreamingGenerator((client, sink) -> memoize(recipes, Unit.INSTANCE, viewer, () -> {
+                var list = new ArrayList<TlaRecipe>();
+                generator.accept(client, list::add);
+                return List.copyOf(list);
+            }).forEach(sink));
+        });
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        var generation = GENERATING.get();
+        if (generation != null) {
+            generation.readViewer = true;
+            return generation.viewer;
+        }
+        viewerSpecific = true;
+        return super.getActiveViewer();
+    }
+
+    /**
+     * Returns the cached value for the key, or generates it for the viewer.
+     * Values that asked for the active viewer while generating aren't cached, so that every viewer generates its own.
+     */
+    private static <K, V> V memoize(Map<K, V> cache, K key, RecipeViewer viewer, Supplier<V> generator) {
+        var cached = cache.get(key);
+        if (cached != null) return cached;
+
+        var generation = new Generation(viewer);
+        var outer = GENERATING.get();
+        GENERATING.set(generation);
+        V value;
+        try {
+            value = generator.get();
+        } finally {
+            GENERATING.set(outer);
+        }
+        if (generation.readViewer) return value;
+        var previous = cache.putIfAbsent(key, value);
+        return previous == null ? value : previous;
+    }
+
+    @Override
+    public String toString() {
+        return "Shared plugin context";
+    }
+
+    private static final class Generation {
+        private final RecipeViewer viewer;
+        private boolean readViewer = false;
+
+        private Generation(RecipeViewer viewer) {
+            this.viewer = viewer;
+        }
+    }
+}
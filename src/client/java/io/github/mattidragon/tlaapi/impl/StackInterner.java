@@ -0,0 +1,32 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+
+/**
+ * Canonicalizes equal stacks and ingredients so that they share a single instance.
+ * Disabled by default, enable it with the {@code tla-api.internStacks} system property.
+ * Interned values are held weakly, so they are still collected once nothing else references them.
+ */
+public final class StackInterner {
+    public static final boolean ENABLED = Boolean.getBoolean("tla-api.internStacks");
+
+    private static final Interner<TlaStack> STACKS = Interners.newWeakInterner();
+    private static final Interner<TlaIngredient> INGREDIENTS = Interners.newWeakInterner();
+
+    private StackInterner() {}
+
+    // Stack equality requires the same class, so the interned instance always has the type of the argument
+    @SuppressWarnings("unchecked")
+    public static <T extends TlaStack> T intern(T stack) {
+        if (!ENABLED) return stack;
+        return (T) STACKS.intern(stack);
+    }
+
+    public static TlaIngredient intern(TlaIngredient ingredient) {
+        if (!ENABLED) return ingredient;
+        return INGREDIENTS.intern(ingredient);
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import net.minecraft.registry.tag.TagKey;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Caches the ingredients created from tags, as generators tend to request the same few tags for every recipe.
+ * The cache is cleared whenever tags are reloaded.
+ */
+public final class TagIngredientCache {
+    private static final Map<TagKey<?>, TlaIngredient> CACHE = new ConcurrentHashMap<>();
+
+    private TagIngredientCache() {}
+
+    public static <T> TlaIngredient get(TagKey<T> tag, Function<TagKey<T>, TlaIngredient> resolver) {
+        var cached = CACHE.get(tag);
+        if (cached != null) return cached;
+
+        // Resolving twice on a race is harmless, the first result wins so every caller sees the same instance
+        var ingredient = resolver.apply(tag);
+        var previous = CACHE.putIfAbsent(tag, ingredient);
+        return previous != null ? previous : ingredient;
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+}
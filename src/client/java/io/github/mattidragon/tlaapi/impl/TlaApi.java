@@ -1,23 +1,192 @@
 package io.github.mattidragon.tlaapi.impl;
 
 import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
 import io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.snapshot.WarmStartSession;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.util.Util;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
 public class TlaApi {
     public static final Logger LOGGER = LoggerFactory.getLogger("TLA Api");
+    /**
+     * When enabled, plugins that are {@link TlaApiPlugin#isParallelSafe() parallel safe} register on worker threads
+     * and implementations may run recipe generators and stack conversion on worker threads.
+     * Controlled by the {@code tla-api.parallelLoading} system property.
+     */
+    public static final boolean PARALLEL_LOADING = Boolean.getBoolean("tla-api.parallelLoading");
+    static final Executor ASYNC_GENERATOR_EXECUTOR = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("TLA Async Generator ", 0).factory());
+
+    /**
+     * Loads all plugins into the implementation.
+     * If plugins were {@link Prewarmer prewarmed} for the viewer their registrations are reused.
+     * The returned session should {@link LoadSession#runDerivedGenerators run derived generators} once the implementation has run all other generators,
+     * and should then be {@link LoadSession#finish() finished}.
+     */
+    public static LoadSession loadPlugins(PluginContext implementation) {
+        return loadPlugins(implementation, false);
+    }
 
-    public static void loadPlugins(PluginContext implementation) {
-        var entrypoints = FabricLoader.getInstance().getEntrypoints("tla-api", TlaApiPlugin.class);
-        LOGGER.info("Loading {} plugins for {}", entrypoints.size(), implementation);
-        for (var entrypoint : entrypoints) {
-             try {
-                entrypoint.register(implementation);
+    /**
+     * Loads all plugins into the implementation like {@link #loadPlugins(PluginContext)}.
+     * @param collectSources Whether the recipes read by derived generators are collected while generators run,
+     *                       for implementations that can't provide their recipes by category. See {@link LoadSession#addDerivedGenerators}.
+     */
+    public static LoadSession loadPlugins(PluginContext implementation, boolean collectSources) {
+        var plugins = Prewarmer.take(implementation.getActiveViewer());
+        if (plugins == null) {
+            plugins = registerPlugins(implementation.getActiveViewer(), (entrypoint, buffer) -> buffer);
+        } else {
+            LOGGER.info("Using prewarmed plugins for {}", implementation);
+        }
+        var warmStart = WarmStartSession.start(implementation.getActiveViewer());
+        // Filters and derived generators of every plugin apply to the recipes of every plugin, so they are collected before anything is committed
+        var filters = new ArrayList<Predicate<TlaRecipe>>();
+        for (var plugin : plugins.plugins()) {
+            filters.addAll(plugin.buffer().getRecipeFilters());
+        }
+        var pruner = new RecipePruner(filters);
+        var derivedGenerators = new ArrayList<DerivedGeneratorScheduler.Entry>();
+        for (var plugin : plugins.plugins()) {
+            for (var generator : plugin.buffer().getDerivedGenerators()) {
+                var description = "Derived generator for " + generator.getTargetCategories().stream().map(category -> category.getId().toString()).sorted().toList();
+                derivedGenerators.add(new DerivedGeneratorScheduler.Entry(generator, plugin.stats().addGenerator(description), plugin.entrypoint().isParallelSafe()));
+            }
+        }
+        var scheduler = new DerivedGeneratorScheduler(derivedGenerators);
+        var sources = collectSources && !scheduler.isEmpty() ? new DerivedGeneratorSources(scheduler.getSourceCategories()) : null;
+        var deduplicator = new RecipeDeduplicator();
+        // Filtering sits below the warm start snapshot so that recipes restored from it are filtered too
+        var filtering = new FilteringPluginContext(implementation, pruner, deduplicator, sources);
+
+        // Asynchronous generators of every plugin run concurrently and are all done before anything is committed
+        var asyncGenerators = new ArrayList<CompletableFuture<Void>>(plugins.plugins().size());
+        for (var plugin : plugins.plugins()) {
+            asyncGenerators.add(plugin.buffer().startAsyncGenerators(ASYNC_GENERATOR_EXECUTOR));
+        }
+        for (int i = 0; i < asyncGenerators.size(); i++) {
+            try {
+                asyncGenerators.get(i).join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Error in asynchronous generator of tla api plugin " + plugins.plugins().get(i).entrypoint(), e.getCause());
+            }
+        }
+
+        var deferredLoad = DeferringPluginContext.ENABLED ? DeferringPluginContext.DeferredLoad.begin(implementation.getActiveViewer()) : null;
+        // Ended when the session finishes, as implementations may run generators until then
+        GeneratorWatchdog.beginLoad();
+        try {
+            commitPlugins(implementation, plugins, warmStart, filtering, deferredLoad);
+        } catch (RuntimeException e) {
+            GeneratorWatchdog.endLoad();
+            throw e;
+        }
+        return new LoadSession(plugins.report(), warmStart, pruner, deduplicator, scheduler, sources);
+    }
+
+    private static void commitPlugins(PluginContext implementation, RegisteredPlugins plugins, @Nullable WarmStartSession warmStart, FilteringPluginContext filtering, @Nullable DeferringPluginContext.DeferredLoad deferredLoad) {
+        for (var plugin : plugins.plugins()) {
+            var start = System.nanoTime();
+            if (implementation instanceof PluginAwareContext aware) aware.beginPlugin(plugin.id(), plugin.entrypoint().isParallelSafe());
+            PluginContext target = warmStart == null ? filtering : warmStart.wrap(filtering, plugin.id());
+            if (deferredLoad != null && plugin.entrypoint().isParallelSafe()) target = new DeferringPluginContext(target, deferredLoad);
+            try {
+                plugin.buffer().replay(new ReportingPluginContext(target, plugin.stats()));
             } catch (RuntimeException e) {
-                 throw new RuntimeException("Error while handling tla api plugin " + entrypoint, e);
+                throw new RuntimeException("Error while committing tla api plugin " + plugin.entrypoint(), e);
             }
+            plugin.stats().addCommitTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the recipe viewers that tla has an implementation for and that are installed.
+     */
+    static List<RecipeViewer> getInstalledViewers() {
+        var viewers = new ArrayList<RecipeViewer>(2);
+        if (FabricLoader.getInstance().isModLoaded("emi")) viewers.add(RecipeViewer.EMI);
+        if (FabricLoader.getInstance().isModLoaded("roughlyenoughitems")) viewers.add(RecipeViewer.REI);
+        return viewers;
+    }
+
+    /**
+     * Registers every plugin into its own buffer.
+     * Plugins that were already registered for another viewer with the same data are taken from the {@link RegistrationSnapshot} instead.
+     * @param wrapper Applied to each buffer after the plugin has registered into it.
+     */
+    static RegisteredPlugins registerPlugins(RecipeViewer viewer, BiFunction<TlaApiPlugin, BufferingPluginContext, BufferingPluginContext> wrapper) {
+        var entrypoints = FabricLoader.getInstance().getEntrypointContainers("tla-api", TlaApiPlugin.class);
+        LOGGER.info("Loading {} plugins for {}", entrypoints.size(), viewer);
+        var report = new LoadReport(viewer);
+        var snapshot = RegistrationSnapshot.begin(viewer);
+
+        // Every plugin registers into its own buffer, which is then committed in entrypoint order.
+        // This keeps the result deterministic even when registering in parallel.
+        var buffers = new ArrayList<BufferingPluginContext>(entrypoints.size());
+        var stats = new ArrayList<LoadReport.PluginStats>(entrypoints.size());
+        var pluginIds = new ArrayList<String>(entrypoints.size());
+        var tasks = new ArrayList<CompletableFuture<Void>>();
+        for (var container : entrypoints) {
+            var entrypoint = container.getEntrypoint();
+            var pluginId = container.getProvider().getMetadata().getId() + " (" + entrypoint.getClass().getName() + ")";
+            var pluginStats = report.addPlugin(pluginId);
+            stats.add(pluginStats);
+            pluginIds.add(pluginId);
+
+            var shared = snapshot == null ? null : snapshot.get(pluginId);
+            if (shared != null) {
+                // Already registered for another viewer
+                buffers.add(shared);
+                continue;
+            }
+
+            var buffer = snapshot == null ? new BufferingPluginContext(viewer) : new SharedPluginContext(viewer);
+            buffers.add(buffer);
+            if (PARALLEL_LOADING && entrypoint.isParallelSafe()) {
+                tasks.add(CompletableFuture.runAsync(() -> register(entrypoint, buffer, pluginStats), Util.getMainWorkerExecutor()));
+            } else {
+                register(entrypoint, buffer, pluginStats);
+            }
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+
+        var plugins = new ArrayList<RegisteredPlugins.Plugin>(entrypoints.size());
+        for (int i = 0; i < entrypoints.size(); i++) {
+            if (snapshot != null && buffers.get(i) instanceof SharedPluginContext shared) {
+                snapshot.put(pluginIds.get(i), shared);
+            }
+            var entrypoint = entrypoints.get(i).getEntrypoint();
+            plugins.add(new RegisteredPlugins.Plugin(entrypoint, pluginIds.get(i), stats.get(i), wrapper.apply(entrypoint, buffers.get(i))));
+        }
+        return new RegisteredPlugins(report, List.copyOf(plugins));
+    }
+
+    private static void register(TlaApiPlugin entrypoint, PluginContext context, LoadReport.PluginStats stats) {
+        var start = System.nanoTime();
+        try {
+            entrypoint.register(context);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Error while handling tla api plugin " + entrypoint, e);
         }
+        stats.addRegisterTime(System.nanoTime() - start);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,16 @@
+package io.github.mattidragon.tlaapi.impl;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+
+public class TlaApiClient implements ClientModInitializer {
+    @Override
+    public void onInitializeClient() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            TagIngredientCache.clear();
+            if (client) Prewarmer.onDataSynced();
+        });
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> Prewarmer.reset());
+    }
+}
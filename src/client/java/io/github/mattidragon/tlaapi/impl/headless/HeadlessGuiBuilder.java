@@ -0,0 +1,213 @@
+package io.github.mattidragon.tlaapi.impl.headless;
+
+import io.github.mattidragon.tlaapi.api.gui.*;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+/**
+ * A gui builder that records widgets instead of creating them for a recipe viewer.
+ * Sizes of built-in widgets match the vanilla style textures used by the recipe viewers.
+ */
+public class HeadlessGuiBuilder implements GuiBuilder {
+    private static final int SLOT_SIZE = 18;
+    private static final int LARGE_SLOT_SIZE = 26;
+    private static final int ARROW_WIDTH = 24;
+    private static final int ARROW_HEIGHT = 17;
+    private static final int FLAME_SIZE = 14;
+    private static final int TEXT_HEIGHT = 9;
+    // Used to estimate text width when there is no client to measure it, roughly the average width of the default font
+    private static final int ESTIMATED_CHAR_WIDTH = 6;
+
+    private final TlaBounds bounds;
+    private final List<RecordedWidget> widgets = new ArrayList<>();
+
+    public HeadlessGuiBuilder(TlaCategory category) {
+        this.bounds = new TlaBounds(0, 0, category.getDisplayWidth(), category.getDisplayHeight());
+    }
+
+    /**
+     * Returns the widgets in the order they were added.
+     */
+    public List<RecordedWidget> getWidgets() {
+        return Collections.unmodifiableList(widgets);
+    }
+
+    private RecordedWidget add(RecordedWidget.Type type, TlaBounds bounds, @Nullable TlaIngredient ingredient, @Nullable Text text) {
+        var widget = new RecordedWidget(type, bounds, ingredient, text);
+        widgets.add(widget);
+        return widget;
+    }
+
+    private WidgetConfig add(RecordedWidget.Type type, int x, int y, int width, int height) {
+        return new HeadlessWidgetConfig<>(add(type, new TlaBounds(x, y, width, height), null, null));
+    }
+
+    @Override
+    public SlotConfig addSlot(TlaIngredient ingredient, int x, int y) {
+        return new HeadlessSlotConfig(add(RecordedWidget.Type.SLOT, new TlaBounds(x, y, SLOT_SIZE, SLOT_SIZE), ingredient, null));
+    }
+
+    @Override
+    public WidgetConfig addTexture(TextureConfig config, int x, int y) {
+        return add(RecordedWidget.Type.TEXTURE, x, y, config.width(), config.height());
+    }
+
+    @Override
+    public WidgetConfig addAnimatedTexture(TextureConfig config, int x, int y, int duration, boolean horizontal, boolean endToStart, boolean fullToEmpty) {
+        return add(RecordedWidget.Type.ANIMATED_TEXTURE, x, y, config.width(), config.height());
+    }
+
+    @Override
+    public WidgetConfig addProgressingTexture(TextureConfig config, int x, int y, DoubleSupplier progress, boolean horizontal, boolean endToStart, boolean fullToEmpty) {
+        return add(RecordedWidget.Type.PROGRESSING_TEXTURE, x, y, config.width(), config.height());
+    }
+
+    @Override
+    public WidgetConfig addArrow(int x, int y, boolean full) {
+        return add(RecordedWidget.Type.ARROW, x, y, ARROW_WIDTH, ARROW_HEIGHT);
+    }
+
+    @Override
+    public WidgetConfig addAnimatedArrow(int x, int y, int duration) {
+        return add(RecordedWidget.Type.ANIMATED_ARROW, x, y, ARROW_WIDTH, ARROW_HEIGHT);
+    }
+
+    @Override
+    public WidgetConfig addFlame(int x, int y) {
+        return add(RecordedWidget.Type.FLAME, x, y, FLAME_SIZE, FLAME_SIZE);
+    }
+
+    @Override
+    public WidgetConfig addAnimatedFlame(int x, int y, int duration) {
+        return add(RecordedWidget.Type.ANIMATED_FLAME, x, y, FLAME_SIZE, FLAME_SIZE);
+    }
+
+    @Override
+    public TextConfig addText(Text text, int x, int y, int color, boolean shadow) {
+        var width = getTextWidth(text);
+        return new HeadlessTextConfig(add(RecordedWidget.Type.TEXT, new TlaBounds(x, y, width, TEXT_HEIGHT), null, text), x);
+    }
+
+    @Override
+    public WidgetConfig addCustomWidget(CustomTlaWidget widget) {
+        return new HeadlessWidgetConfig<>(add(RecordedWidget.Type.CUSTOM, widget.getBounds(), null, null));
+    }
+
+    @Override
+    public void addTooltip(int x, int y, int width, int height, List<Text> tooltip) {
+        add(RecordedWidget.Type.TOOLTIP, new TlaBounds(x, y, width, height), null, null).addTooltip(tooltip);
+    }
+
+    @Override
+    public TlaBounds getBounds() {
+        return bounds;
+    }
+
+    private static int getTextWidth(Text text) {
+        var client = MinecraftClient.getInstance();
+        if (client == null || client.textRenderer == null) {
+            return text.getString().length() * ESTIMATED_CHAR_WIDTH;
+        }
+        return client.textRenderer.getWidth(text);
+    }
+
+    private static class HeadlessWidgetConfig<T extends HeadlessWidgetConfig<T>> implements WidgetConfig {
+        protected final RecordedWidget widget;
+
+        private HeadlessWidgetConfig(RecordedWidget widget) {
+            this.widget = widget;
+        }
+
+        @Override
+        public T addTooltip(List<Text> tooltip) {
+            widget.addTooltip(tooltip);
+            return getThis();
+        }
+
+        @Override
+        public TlaBounds getBounds() {
+            return widget.getBounds();
+        }
+
+        @SuppressWarnings("unchecked")
+        protected T getThis() {
+            return (T) this;
+        }
+    }
+
+    private static class HeadlessTextConfig extends HeadlessWidgetConfig<HeadlessTextConfig> implements TextConfig {
+        private final int anchorX;
+
+        private HeadlessTextConfig(RecordedWidget widget, int anchorX) {
+            super(widget);
+            this.anchorX = anchorX;
+        }
+
+        private HeadlessTextConfig align(int x) {
+            var bounds = widget.getBounds();
+            widget.setBounds(new TlaBounds(x, bounds.y(), bounds.width(), bounds.height()));
+            return this;
+        }
+
+        @Override
+        public TextConfig alignLeft() {
+            return align(anchorX);
+        }
+
+        @Override
+        public TextConfig alignRight() {
+            return align(anchorX - widget.getBounds().width());
+        }
+
+        @Override
+        public TextConfig alignCenter() {
+            return align(anchorX - widget.getBounds().width() / 2);
+        }
+    }
+
+    private static class HeadlessSlotConfig extends HeadlessWidgetConfig<HeadlessSlotConfig> implements SlotConfig {
+        private HeadlessSlotConfig(RecordedWidget widget) {
+            super(widget);
+        }
+
+        @Override
+        public SlotConfig markOutput() {
+            widget.addFlag(RecordedWidget.Flag.OUTPUT);
+            return this;
+        }
+
+        @Override
+        public SlotConfig markInput() {
+            widget.addFlag(RecordedWidget.Flag.INPUT);
+            return this;
+        }
+
+        @Override
+        public SlotConfig markCatalyst() {
+            widget.addFlag(RecordedWidget.Flag.CATALYST);
+            return this;
+        }
+
+        @Override
+        public SlotConfig disableBackground() {
+            widget.addFlag(RecordedWidget.Flag.NO_BACKGROUND);
+            return this;
+        }
+
+        @Override
+        public SlotConfig makeLarge() {
+            widget.addFlag(RecordedWidget.Flag.LARGE);
+            var bounds = widget.getBounds();
+            widget.setBounds(new TlaBounds(bounds.x(), bounds.y(), LARGE_SLOT_SIZE, LARGE_SLOT_SIZE));
+            return this;
+        }
+    }
+}
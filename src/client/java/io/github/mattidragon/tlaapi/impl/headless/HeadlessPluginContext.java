@@ -0,0 +1,236 @@
+package io.github.mattidragon.tlaapi.impl.headless;
+
+import io.github.mattidragon.tlaapi.api.StackDragHandler;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeType;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A plugin context that runs generators immediately and records the results instead of passing them to a recipe viewer.
+ * It doesn't need any recipe viewer to be loaded, which makes it usable for timing plugins and counting their output outside the game.
+ * Recipe generators are run against the recipes passed to the constructor.
+ * Custom generators get the current client instance, which is null when running outside the game.
+ */
+public class HeadlessPluginContext implements PluginContext {
+    private final RecipeViewer viewer;
+    private final Collection<? extends RecipeEntry<?>> recipeEntries;
+    private final Map<TlaCategory, List<TlaIngredient>> categories = new LinkedHashMap<>();
+    private final List<TlaRecipe> recipes = new ArrayList<>();
+    private final List<ScreenHook> screenHooks = new ArrayList<>();
+    private final List<DynamicRecipeGenerator> dynamicGenerators = new ArrayList<>();
+    private final List<Predicate<TlaRecipe>> recipeFilters = new ArrayList<>();
+    private final List<DerivedRecipeGenerator> derivedGenerators = new ArrayList<>();
+
+    /**
+     * @param viewer The viewer reported to plugins through {@link #getActiveViewer()}.
+     * @param recipeEntries The recipes that recipe generators are run against.
+     */
+    public HeadlessPluginContext(RecipeViewer viewer, Collection<? extends RecipeEntry<?>> recipeEntries) {
+        this.viewer = viewer;
+        this.recipeEntries = recipeEntries;
+    }
+
+    /**
+     * Returns the registered categories in registration order.
+     */
+    public List<TlaCategory> getCategories() {
+        return List.copyOf(categories.keySet());
+    }
+
+    public List<TlaIngredient> getWorkstations(TlaCategory category) {
+        return Collections.unmodifiableList(categories.getOrDefault(category, List.of()));
+    }
+
+    /**
+     * Returns all generated recipes in the order they were generated.
+     */
+    public List<TlaRecipe> getRecipes() {
+        return Collections.unmodifiableList(recipes);
+    }
+
+    public List<ScreenHook> getScreenHooks() {
+        return Collections.unmodifiableList(screenHooks);
+    }
+
+    /**
+     * Returns the registered dynamic generators. They aren't run as they need a stack to be looked up.
+     */
+    public List<DynamicRecipeGenerator> getDynamicGenerators() {
+        return Collections.unmodifiableList(dynamicGenerators);
+    }
+
+    /**
+     * Returns the registered recipe filters. They aren't applied to the generated recipes, so that pruning can be measured separately.
+     */
+    public List<Predicate<TlaRecipe>> getRecipeFilters() {
+        return Collections.unmodifiableList(recipeFilters);
+    }
+
+    /**
+     * Returns the registered derived generators. They aren't run as they depend on the recipes of every plugin.
+     */
+    public List<DerivedRecipeGenerator> getDerivedGenerators() {
+        return Collections.unmodifiableList(derivedGenerators);
+    }
+
+    /**
+     * Builds the gui of a recipe and returns the widgets it added.
+     */
+    public List<RecordedWidget> buildGui(TlaRecipe recipe) {
+        var builder = new HeadlessGuiBuilder(recipe.getCategory());
+        recipe.buildGui(builder);
+        return builder.getWidgets();
+    }
+
+    @Override
+    public void addCategory(TlaCategory category) {
+        categories.put(category, new ArrayList<>());
+    }
+
+    @Override
+    public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
+        var categoryWorkstations = categories.get(category);
+        if (categoryWorkstations == null) throw new IllegalArgumentException("Category " + category + " not registered");
+        categoryWorkstations.addAll(Arrays.asList(workstations));
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        for (var entry : recipeEntries) {
+            if (entry.value().getType() == type) {
+                // Like the real implementations, a null result skips the recipe
+                var recipe = generator.apply(unsafeCast(entry));
+                if (recipe != null) recipes.add(recipe);
+            }
+        }
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        for (var entry : recipeEntries) {
+            if (entry.value().getType() == type) {
+                generator.accept(unsafeCast(entry), recipes::add);
+            }
+        }
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        recipes.addAll(generator.apply(MinecraftClient.getInstance()));
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        generator.accept(MinecraftClient.getInstance(), recipes::add);
+    }
+
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        return addRefreshable(() -> {
+            var generated = new ArrayList<TlaRecipe>();
+            for (var entry : recipeEntries) {
+                if (entry.value().getType() == type) {
+                    var recipe = generator.apply(unsafeCast(entry));
+                    if (recipe != null) generated.add(recipe);
+                }
+            }
+            return generated;
+        });
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        return addRefreshable(() -> generator.apply(MinecraftClient.getInstance()));
+    }
+
+    /**
+     * Refreshing replaces the previous recipes of the generator with the new ones, which are added at the end.
+     */
+    private GeneratorHandle addRefreshable(Supplier<List<TlaRecipe>> generator) {
+        var current = new ArrayList<>(generator.get());
+        recipes.addAll(current);
+        return () -> {
+            var replaced = Collections.newSetFromMap(new IdentityHashMap<TlaRecipe, Boolean>());
+            replaced.addAll(current);
+            recipes.removeIf(replaced::contains);
+            current.clear();
+            current.addAll(generator.get());
+            recipes.addAll(current);
+            return true;
+        };
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        dynamicGenerators.add(generator);
+    }
+
+    @Override
+    public void addRecipeFilter(Predicate<TlaRecipe> filter) {
+        recipeFilters.add(filter);
+    }
+
+    @Override
+    public void addDerivedGenerator(DerivedRecipeGenerator generator) {
+        derivedGenerators.add(generator);
+    }
+
+    @Override
+    public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        screenHooks.add(new ScreenHook(ScreenHook.Type.CLICK_AREA, clazz, category, boundsFunction));
+    }
+
+    @Override
+    public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        screenHooks.add(new ScreenHook(ScreenHook.Type.SCREEN_HANDLER_CLICK_AREA, clazz, category, boundsFunction));
+    }
+
+    @Override
+    public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
+        screenHooks.add(new ScreenHook(ScreenHook.Type.STACK_DRAG_HANDLER, clazz, null, handler));
+    }
+
+    @Override
+    public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
+        screenHooks.add(new ScreenHook(ScreenHook.Type.SCREEN_SIZE_PROVIDER, clazz, null, provider));
+    }
+
+    @Override
+    public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
+        screenHooks.add(new ScreenHook(ScreenHook.Type.EXCLUSION_ZONE_PROVIDER, clazz, null, provider));
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        return viewer;
+    }
+
+    @Override
+    public String toString() {
+        return "Headless plugin handler";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unsafeCast(Object o) {
+        return (T) o;
+    }
+}
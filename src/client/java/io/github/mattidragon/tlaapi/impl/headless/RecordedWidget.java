@@ -0,0 +1,107 @@
+package io.github.mattidragon.tlaapi.impl.headless;
+
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A widget added to a {@link HeadlessGuiBuilder}.
+ * Widgets stay mutable while the recipe builds its gui, as configs can change them after they are added.
+ */
+public final class RecordedWidget {
+    private final Type type;
+    private final @Nullable TlaIngredient ingredient;
+    private final @Nullable Text text;
+    private final List<Text> tooltip = new ArrayList<>();
+    private final Set<Flag> flags = EnumSet.noneOf(Flag.class);
+    private TlaBounds bounds;
+
+    RecordedWidget(Type type, TlaBounds bounds, @Nullable TlaIngredient ingredient, @Nullable Text text) {
+        this.type = type;
+        this.bounds = bounds;
+        this.ingredient = ingredient;
+        this.text = text;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public TlaBounds getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Returns the ingredient displayed by a slot, or null for other widgets.
+     */
+    public @Nullable TlaIngredient getIngredient() {
+        return ingredient;
+    }
+
+    /**
+     * Returns the text displayed by a text widget, or null for other widgets.
+     */
+    public @Nullable Text getText() {
+        return text;
+    }
+
+    public List<Text> getTooltip() {
+        return Collections.unmodifiableList(tooltip);
+    }
+
+    public Set<Flag> getFlags() {
+        return Collections.unmodifiableSet(flags);
+    }
+
+    void setBounds(TlaBounds bounds) {
+        this.bounds = bounds;
+    }
+
+    void addTooltip(List<Text> tooltip) {
+        this.tooltip.addAll(tooltip);
+    }
+
+    void addFlag(Flag flag) {
+        flags.add(flag);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordedWidget[" +
+               "type=" + type + ", " +
+               "bounds=" + bounds + ", " +
+               "flags=" + flags + ']';
+    }
+
+    public enum Type {
+        SLOT,
+        TEXTURE,
+        ANIMATED_TEXTURE,
+        PROGRESSING_TEXTURE,
+        ARROW,
+        ANIMATED_ARROW,
+        FLAME,
+        ANIMATED_FLAME,
+        TEXT,
+        CUSTOM,
+        TOOLTIP
+    }
+
+    /**
+     * Options set through {@link io.github.mattidragon.tlaapi.api.gui.SlotConfig SlotConfig}.
+     */
+    public enum Flag {
+        INPUT,
+        OUTPUT,
+        CATALYST,
+        NO_BACKGROUND,
+        LARGE
+    }
+}
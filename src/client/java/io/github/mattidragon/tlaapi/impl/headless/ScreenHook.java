@@ -0,0 +1,20 @@
+package io.github.mattidragon.tlaapi.impl.headless;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import net.minecraft.client.gui.screen.Screen;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A screen related registration recorded by {@link HeadlessPluginContext}.
+ * @param category The category opened by click areas, null for other hooks.
+ * @param hook The handler, provider or bounds function passed by the plugin.
+ */
+public record ScreenHook(Type type, Class<? extends Screen> screenClass, @Nullable TlaCategory category, Object hook) {
+    public enum Type {
+        CLICK_AREA,
+        SCREEN_HANDLER_CLICK_AREA,
+        STACK_DRAG_HANDLER,
+        SCREEN_SIZE_PROVIDER,
+        EXCLUSION_ZONE_PROVIDER
+    }
+}
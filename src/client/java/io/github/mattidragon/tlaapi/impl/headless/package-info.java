@@ -0,0 +1,8 @@
+/**
+ * A recipe viewer independent implementation of the api that records everything plugins register into plain data structures.
+ * Useful for measuring and testing plugins without launching a recipe viewer.
+ */
+@ApiStatus.Internal
+package io.github.mattidragon.tlaapi.impl.headless;
+
+import org.jetbrains.annotations.ApiStatus;
@@ -0,0 +1,18 @@
+package io.github.mattidragon.tlaapi.impl.mixin;
+
+import io.github.mattidragon.tlaapi.impl.Prewarmer;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.packet.s2c.play.SynchronizeRecipesS2CPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientPlayNetworkHandler.class)
+public abstract class ClientPlayNetworkHandlerMixin {
+    // Fabric has no event for recipe syncs
+    @Inject(method = "onSynchronizeRecipes", at = @At("TAIL"))
+    private void tla_api$prewarmOnRecipeSync(SynchronizeRecipesS2CPacket packet, CallbackInfo ci) {
+        Prewarmer.onDataSynced();
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.impl.TlaApi;
+import io.netty.buffer.Unpooled;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.registry.DynamicRegistryManager;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Computes hashes of everything that generated recipes may depend on:
+ * the installed mods, the item and fluid registries, their tags and the recipes synced by the server.
+ * A snapshot is only reused if the fingerprint matches exactly.
+ */
+public final class RecipeFingerprint {
+    private RecipeFingerprint() {}
+
+    static byte @Nullable [] compute(RecipeViewer viewer) {
+        var handler = MinecraftClient.getInstance().getNetworkHandler();
+        if (handler == null) return null;
+        var recipes = hashRecipesByType(handler.getRecipeManager(), handler.getRegistryManager());
+        if (recipes == null) return null;
+
+        var hasher = Hashing.sha256().newHasher();
+        hasher.putInt(SnapshotFile.VERSION);
+        hasher.putString(viewer.id(), StandardCharsets.UTF_8);
+
+        FabricLoader.getInstance()
+                .getAllMods()
+                .stream()
+                .map(mod -> mod.getMetadata().getId() + "@" + mod.getMetadata().getVersion().getFriendlyString())
+                .sorted()
+                .forEach(mod -> hasher.putString(mod, StandardCharsets.UTF_8));
+
+        hasher.putBytes(hashRegistries().asBytes());
+        hasher.putBytes(combine(recipes).asBytes());
+        return hasher.hash().asBytes();
+    }
+
+    /**
+     * Hashes the item and fluid registries together with their tags.
+     */
+    public static HashCode hashRegistries() {
+        var hasher = Hashing.sha256().newHasher();
+        hashRegistry(hasher, Registries.ITEM);
+        hashRegistry(hasher, Registries.FLUID);
+        return hasher.hash();
+    }
+
+    /**
+     * Hashes the network encoding of the recipes of each type separately, so that changes can be tracked per type.
+     * Returns null if a recipe couldn't be encoded.
+     */
+    public static @Nullable Map<RecipeType<?>, HashCode> hashRecipesByType(RecipeManager manager, DynamicRegistryManager registries) {
+        var byType = new IdentityHashMap<RecipeType<?>, List<RecipeEntry<?>>>();
+        for (var recipe : manager.values()) {
+            byType.computeIfAbsent(recipe.value().getType(), type -> new ArrayList<>()).add(recipe);
+        }
+
+        var hashes = new IdentityHashMap<RecipeType<?>, HashCode>();
+        var buf = new RegistryByteBuf(Unpooled.buffer(), registries);
+        try {
+            byType.forEach((type, recipes) -> {
+                buf.clear();
+                recipes.sort(Comparator.comparing(RecipeEntry::id));
+                recipes.forEach(recipe -> RecipeEntry.PACKET_CODEC.encode(buf, recipe));
+                hashes.put(type, Hashing.sha256().hashBytes(buf.nioBuffer()));
+            });
+        } catch (RuntimeException e) {
+            TlaApi.LOGGER.warn("Failed to fingerprint recipes", e);
+            return null;
+        } finally {
+            buf.release();
+        }
+        return hashes;
+    }
+
+    /**
+     * Combines per type hashes into a single hash that is independent of map iteration order.
+     */
+    public static HashCode combine(Map<RecipeType<?>, HashCode> hashes) {
+        var sorted = new TreeMap<String, HashCode>();
+        hashes.forEach((type, hash) -> sorted.put(String.valueOf(Registries.RECIPE_TYPE.getId(type)), hash));
+        var hasher = Hashing.sha256().newHasher();
+        sorted.forEach((type, hash) -> {
+            hasher.putString(type, StandardCharsets.UTF_8);
+            hasher.putBytes(hash.asBytes());
+        });
+        return hasher.hash();
+    }
+
+    private static <T> void hashRegistry(Hasher hasher, Registry<T> registry) {
+        for (var value : registry) {
+            hasher.putInt(registry.getRawId(value));
+            hasher.putString(String.valueOf(registry.getId(value)), StandardCharsets.UTF_8);
+        }
+        registry.streamTagsAndEntries()
+                .map(pair -> pair.getFirst().id() + "=" + pair.getSecond()
+                        .stream()
+                        .map(entry -> String.valueOf(registry.getId(entry.value())))
+                        .sorted()
+                        .toList())
+                .sorted()
+                .forEach(tag -> hasher.putString(tag, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * The stored form of a generated recipe.
+ * @param sourceId The id of the vanilla recipe the recipe was generated from. Used to regenerate the recipe when its gui is needed.
+ * @param id The id reported by the generated recipe itself.
+ */
+record SnapshotEntry(Identifier sourceId, @Nullable Identifier id, Identifier categoryId, List<TlaIngredient> inputs, List<TlaStack> outputs, List<TlaIngredient> catalysts) {
+    /**
+     * Creates an entry from a generated recipe, or returns null if the recipe can't be stored.
+     * Only stacks without components are stored, as raw registry ids are all that the snapshot keeps.
+     * Generators whose recipes have such stacks, like potions or enchanted books, are therefore always run instead of restored.
+     */
+    static @Nullable SnapshotEntry of(Identifier sourceId, TlaRecipe recipe) {
+        var category = recipe.getCategory();
+        // Custom comparators may depend on the exact recipe class, which lazy recipes can't provide
+        if (category.getRecipeComparator() != null) return null;
+
+        var inputs = recipe.getInputs();
+        var outputs = recipe.getOutputs();
+        var catalysts = recipe.getCatalysts();
+        if (!inputs.stream().allMatch(SnapshotEntry::isStorable)) return null;
+        if (!outputs.stream().allMatch(SnapshotEntry::isStorable)) return null;
+        if (!catalysts.stream().allMatch(SnapshotEntry::isStorable)) return null;
+
+        return new SnapshotEntry(sourceId, recipe.getId(), category.getId(), List.copyOf(inputs), List.copyOf(outputs), List.copyOf(catalysts));
+    }
+
+    private static boolean isStorable(TlaIngredient ingredient) {
+        return ingredient.getStacks().stream().allMatch(SnapshotEntry::isStorable);
+    }
+
+    private static boolean isStorable(TlaStack stack) {
+        if (stack instanceof TlaStack.TlaItemStack itemStack) return itemStack.getItemVariant().getComponents().isEmpty();
+        if (stack instanceof TlaStack.TlaFluidStack fluidStack) return fluidStack.getFluidVariant().getComponents().isEmpty();
+        return false;
+    }
+}
@@ -0,0 +1,214 @@
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads and writes snapshot files.
+ * <p>
+ * Layout: magic, format version, fingerprint, a table of all identifiers used in the file and then the recipes of each generator.
+ * Recipes refer to identifiers by index into the table and to items and fluids by raw registry id.
+ * Raw ids are only valid for the exact same registries, which is guaranteed by the fingerprint.
+ * Ingredients created from tags are stored as the tag, so that they are resolved through the tag cache again when read.
+ * Stacks with components aren't stored at all, see {@link SnapshotEntry#of}.
+ */
+final class SnapshotFile {
+    static final int VERSION = 2;
+    private static final int MAGIC = 0x544C4153; // "TLAS"
+    private static final byte ITEM = 0;
+    private static final byte FLUID = 1;
+    private static final byte STACKS = 0;
+    private static final byte ITEM_TAG = 1;
+    private static final byte FLUID_TAG = 2;
+
+    private SnapshotFile() {}
+
+    /**
+     * Reads the recipes of each generator from the file.
+     * Returns null if the file doesn't exist or was written for a different fingerprint.
+     */
+    static @Nullable Map<String, List<SnapshotEntry>> read(Path path, byte[] fingerprint) throws IOException {
+        if (!Files.exists(path)) return null;
+
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+
+            var storedFingerprint = new byte[buffer.getInt()];
+            buffer.get(storedFingerprint);
+            if (!Arrays.equals(storedFingerprint, fingerprint)) return null;
+
+            var identifiers = new Identifier[buffer.getInt()];
+            for (int i = 0; i < identifiers.length; i++) {
+                identifiers[i] = new Identifier(readString(buffer));
+            }
+
+            var generatorCount = buffer.getInt();
+            var generators = new LinkedHashMap<String, List<SnapshotEntry>>(generatorCount);
+            for (int i = 0; i < generatorCount; i++) {
+                var key = readString(buffer);
+                var entryCount = buffer.getInt();
+                var entries = new ArrayList<SnapshotEntry>(entryCount);
+                for (int j = 0; j < entryCount; j++) {
+                    var sourceId = identifiers[buffer.getInt()];
+                    var idIndex = buffer.getInt();
+                    var categoryId = identifiers[buffer.getInt()];
+                    var inputs = readIngredients(buffer, identifiers);
+                    var outputs = readStacks(buffer);
+                    var catalysts = readIngredients(buffer, identifiers);
+                    entries.add(new SnapshotEntry(sourceId, idIndex == -1 ? null : identifiers[idIndex], categoryId, inputs, outputs, catalysts));
+                }
+                generators.put(key, entries);
+            }
+            return generators;
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed snapshot file", e);
+        }
+    }
+
+    /**
+     * Writes the file, replacing any previous one.
+     */
+    static void write(Path path, byte[] fingerprint, Map<String, List<SnapshotEntry>> generators) throws IOException {
+        var identifiers = new LinkedHashMap<Identifier, Integer>();
+        for (var entries : generators.values()) {
+            for (var entry : entries) {
+                identifiers.putIfAbsent(entry.sourceId(), identifiers.size());
+                if (entry.id() != null) identifiers.putIfAbsent(entry.id(), identifiers.size());
+                identifiers.putIfAbsent(entry.categoryId(), identifiers.size());
+                for (var ingredient : entry.inputs()) addTagId(identifiers, ingredient);
+                for (var ingredient : entry.catalysts()) addTagId(identifiers, ingredient);
+            }
+        }
+
+        Files.createDirectories(path.getParent());
+        var tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(fingerprint.length);
+            out.write(fingerprint);
+
+            out.writeInt(identifiers.size());
+            for (var identifier : identifiers.keySet()) {
+                writeString(out, identifier.toString());
+            }
+
+            out.writeInt(generators.size());
+            for (var generator : generators.entrySet()) {
+                writeString(out, generator.getKey());
+                out.writeInt(generator.getValue().size());
+                for (var entry : generator.getValue()) {
+                    out.writeInt(identifiers.get(entry.sourceId()));
+                    out.writeInt(entry.id() == null ? -1 : identifiers.get(entry.id()));
+                    out.writeInt(identifiers.get(entry.categoryId()));
+                    writeIngredients(out, entry.inputs(), identifiers);
+                    writeStacks(out, entry.outputs());
+                    writeIngredients(out, entry.catalysts(), identifiers);
+                }
+            }
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void addTagId(Map<Identifier, Integer> identifiers, TlaIngredient ingredient) {
+        var tag = ingredient.getTag();
+        if (tag != null) identifiers.putIfAbsent(tag.id(), identifiers.size());
+    }
+
+    private static List<TlaIngredient> readIngredients(ByteBuffer buffer, Identifier[] identifiers) {
+        var count = buffer.getInt();
+        var ingredients = new ArrayList<TlaIngredient>(count);
+        for (int i = 0; i < count; i++) {
+            var kind = buffer.get();
+            ingredients.add(switch (kind) {
+                case STACKS -> TlaIngredient.ofStacks(readStacks(buffer));
+                case ITEM_TAG -> TlaIngredient.ofItemTag(TagKey.of(RegistryKeys.ITEM, identifiers[buffer.getInt()]));
+                case FLUID_TAG -> TlaIngredient.ofFluidTag(TagKey.of(RegistryKeys.FLUID, identifiers[buffer.getInt()]));
+                default -> throw new IllegalStateException("Unknown ingredient kind " + kind);
+            });
+        }
+        return ingredients;
+    }
+
+    private static List<TlaStack> readStacks(ByteBuffer buffer) {
+        var count = buffer.getInt();
+        var stacks = new ArrayList<TlaStack>(count);
+        for (int i = 0; i < count; i++) {
+            var type = buffer.get();
+            var rawId = buffer.getInt();
+            var amount = buffer.getLong();
+            var chance = buffer.getDouble();
+            TlaStack stack = switch (type) {
+                case ITEM -> TlaStack.of(Registries.ITEM.get(rawId), amount);
+                case FLUID -> TlaStack.of(Registries.FLUID.get(rawId), amount);
+                default -> throw new IllegalStateException("Unknown stack type " + type);
+            };
+            stacks.add(Double.isNaN(chance) ? stack : stack.withChance(chance));
+        }
+        return stacks;
+    }
+
+    private static void writeIngredients(DataOutputStream out, List<TlaIngredient> ingredients, Map<Identifier, Integer> identifiers) throws IOException {
+        out.writeInt(ingredients.size());
+        for (var ingredient : ingredients) {
+            var tag = ingredient.getTag();
+            if (tag != null && tag.registry().equals(RegistryKeys.ITEM)) {
+                out.writeByte(ITEM_TAG);
+                out.writeInt(identifiers.get(tag.id()));
+            } else if (tag != null && tag.registry().equals(RegistryKeys.FLUID)) {
+                out.writeByte(FLUID_TAG);
+                out.writeInt(identifiers.get(tag.id()));
+            } else {
+                out.writeByte(STACKS);
+                writeStacks(out, ingredient.getStacks());
+            }
+        }
+    }
+
+    private static void writeStacks(DataOutputStream out, Collection<TlaStack> stacks) throws IOException {
+        out.writeInt(stacks.size());
+        for (var stack : stacks) {
+            if (stack instanceof TlaStack.TlaItemStack itemStack) {
+                out.writeByte(ITEM);
+                out.writeInt(Registries.ITEM.getRawId(itemStack.getItem()));
+            } else if (stack instanceof TlaStack.TlaFluidStack fluidStack) {
+                out.writeByte(FLUID);
+                out.writeInt(Registries.FLUID.getRawId(fluidStack.getFluid()));
+            } else {
+                throw new IllegalArgumentException("Unknown stack type: " + stack.getClass().getName());
+            }
+            out.writeLong(stack.getAmount());
+            out.writeDouble(stack.getRawChance());
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        var bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import io.github.mattidragon.tlaapi.api.StackDragHandler;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.GeneratorHandle;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.DerivedRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.DynamicRecipeGenerator;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.screen.ingame.HandledScreen;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Forwards registrations of a single plugin to an implementation,
+ * replacing recipe generators with the snapshot of their output when one is available and capturing their output otherwise.
+ */
+class SnapshotPluginContext implements PluginContext {
+    private final WarmStartSession session;
+    private final PluginContext delegate;
+    private final String pluginId;
+    private int recipeGenerators = 0;
+
+    SnapshotPluginContext(WarmStartSession session, PluginContext delegate, String pluginId) {
+        this.session = session;
+        this.delegate = delegate;
+        this.pluginId = pluginId;
+    }
+
+    @Override
+    public void addCategory(TlaCategory category) {
+        session.addCategory(category);
+        delegate.addCategory(category);
+    }
+
+    @Override
+    public void addWorkstation(TlaCategory category, TlaIngredient... workstations) {
+        delegate.addWorkstation(category, workstations);
+    }
+
+    @Override
+    public <T extends Recipe<?>> void addRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var key = pluginId + "/" + recipeGenerators++ + "/" + Registries.RECIPE_TYPE.getId(type);
+        var snapshot = session.getSnapshot(key);
+        if (snapshot == null) {
+            delegate.addRecipeGenerator(type, capturing(key, generator));
+            return;
+        }
+
+        session.keep(key, snapshot);
+        delegate.addGenerator(client -> {
+            var recipes = new ArrayList<TlaRecipe>(snapshot.size());
+            for (var entry : snapshot) {
+                var category = session.getCategory(entry.categoryId());
+                // The category is gone, which the fingerprint can't detect. Fall back to running the generator.
+                if (category == null) return generateAll(client, type, capturing(key, generator));
+                recipes.add(new SnapshotRecipe(entry, category, id -> regenerate(client, type, generator, id)));
+            }
+            session.addRestored(recipes.size());
+            return recipes;
+        });
+    }
+
+    private <T extends Recipe<?>> Function<RecipeEntry<T>, TlaRecipe> capturing(String key, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var entries = session.beginCapture(key);
+        return entry -> {
+            var recipe = generator.apply(entry);
+            if (recipe != null) {
+                var snapshotEntry = SnapshotEntry.of(entry.id(), recipe);
+                if (snapshotEntry == null) {
+                    session.markUncacheable(key);
+                } else {
+                    entries.add(snapshotEntry);
+                }
+            }
+            return recipe;
+        };
+    }
+
+    @SuppressWarnings("unchecked") // See TlaApiEmiPlugin.EmiImplementation#addRecipeGenerator
+    private static <T extends Recipe<?>> List<TlaRecipe> generateAll(MinecraftClient client, RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        var recipes = new ArrayList<TlaRecipe>();
+        for (var entry : getRecipeManager(client).listAllOfType((RecipeType<Recipe<Inventory>>) type)) {
+            var recipe = generator.apply((RecipeEntry<T>) entry);
+            if (recipe != null) recipes.add(recipe);
+        }
+        return recipes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Recipe<?>> @Nullable TlaRecipe regenerate(MinecraftClient client, RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator, Identifier id) {
+        return getRecipeManager(client).get(id)
+                .filter(entry -> entry.value().getType() == type)
+                .map(entry -> generator.apply((RecipeEntry<T>) entry))
+                .orElse(null);
+    }
+
+    private static RecipeManager getRecipeManager(MinecraftClient client) {
+        var handler = client.getNetworkHandler();
+        if (handler == null) throw new IllegalStateException("Recipes aren't available without a connection");
+        return handler.getRecipeManager();
+    }
+
+    // Multi-recipe generators aren't snapshotted, as a snapshot entry can only hold a single recipe
+    @Override
+    public <T extends Recipe<?>> void addMultiRecipeGenerator(RecipeType<T> type, BiConsumer<RecipeEntry<T>, Consumer<TlaRecipe>> generator) {
+        delegate.addMultiRecipeGenerator(type, generator);
+    }
+
+    @Override
+    public void addGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        delegate.addGenerator(generator);
+    }
+
+    @Override
+    public void addStreamingGenerator(BiConsumer<MinecraftClient, Consumer<TlaRecipe>> generator) {
+        delegate.addStreamingGenerator(generator);
+    }
+
+    @Override
+    public void addAsyncGenerator(Function<MinecraftClient, CompletableFuture<List<TlaRecipe>>> generator) {
+        delegate.addAsyncGenerator(generator);
+    }
+
+    @Override
+    public <T extends Recipe<?>> GeneratorHandle addRefreshableRecipeGenerator(RecipeType<T> type, Function<RecipeEntry<T>, TlaRecipe> generator) {
+        return delegate.addRefreshableRecipeGenerator(type, generator);
+    }
+
+    @Override
+    public GeneratorHandle addRefreshableGenerator(Function<MinecraftClient, List<TlaRecipe>> generator) {
+        return delegate.addRefreshableGenerator(generator);
+    }
+
+    @Override
+    public void addDynamicGenerator(DynamicRecipeGenerator generator) {
+        delegate.addDynamicGenerator(generator);
+    }
+
+    @Override
+    public void addRecipeFilter(Predicate<TlaRecipe> filter) {
+        delegate.addRecipeFilter(filter);
+    }
+
+    @Override
+    public void addDerivedGenerator(DerivedRecipeGenerator generator) {
+        delegate.addDerivedGenerator(generator);
+    }
+
+    @Override
+    public <T extends Screen> void addClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends HandledScreen<?>> void addScreenHandlerClickArea(Class<T> clazz, TlaCategory category, Function<T, TlaBounds> boundsFunction) {
+        delegate.addScreenHandlerClickArea(clazz, category, boundsFunction);
+    }
+
+    @Override
+    public <T extends Screen> void addStackDragHandler(Class<T> clazz, StackDragHandler<T> handler) {
+        delegate.addStackDragHandler(clazz, handler);
+    }
+
+    @Override
+    public <T extends Screen> void addScreenSizeProvider(Class<T> clazz, Function<T, TlaBounds> provider) {
+        delegate.addScreenSizeProvider(clazz, provider);
+    }
+
+    @Override
+    public <T extends Screen> void addExclusionZoneProvider(Class<T> clazz, Function<T, ? extends Iterable<TlaBounds>> provider) {
+        delegate.addExclusionZoneProvider(clazz, provider);
+    }
+
+    @Override
+    public RecipeViewer getActiveViewer() {
+        return delegate.getActiveViewer();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
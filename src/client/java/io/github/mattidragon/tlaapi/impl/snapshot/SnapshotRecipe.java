@@ -0,0 +1,80 @@
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import io.github.mattidragon.tlaapi.api.gui.GuiBuilder;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import org.jetbrains.annotations.Nullable;
+import net.minecraft.util.Identifier;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A recipe restored from a snapshot.
+ * Inputs and outputs come directly from the snapshot, while the gui is built by the real recipe, which is only generated the first time it's needed.
+ */
+final class SnapshotRecipe implements TlaRecipe {
+    private final SnapshotEntry entry;
+    private final TlaCategory category;
+    private final Function<Identifier, @Nullable TlaRecipe> generator;
+    private volatile @Nullable TlaRecipe resolved;
+
+    SnapshotRecipe(SnapshotEntry entry, TlaCategory category, Function<Identifier, @Nullable TlaRecipe> generator) {
+        this.entry = entry;
+        this.category = category;
+        this.generator = generator;
+    }
+
+    @Override
+    public TlaCategory getCategory() {
+        return category;
+    }
+
+    @Override
+    public @Nullable Identifier getId() {
+        return entry.id();
+    }
+
+    @Override
+    public List<TlaIngredient> getInputs() {
+        return entry.inputs();
+    }
+
+    @Override
+    public List<TlaStack> getOutputs() {
+        return entry.outputs();
+    }
+
+    @Override
+    public List<TlaIngredient> getCatalysts() {
+        return entry.catalysts();
+    }
+
+    @Override
+    public void buildGui(GuiBuilder builder) {
+        var recipe = resolve();
+        if (recipe == null) {
+            throw new IllegalStateException("Recipe " + entry.sourceId() + " from warm start snapshot no longer exists");
+        }
+        recipe.buildGui(builder);
+    }
+
+    /**
+     * Returns the real recipe, generating it the first time, or null if it no longer exists.
+     */
+    @Nullable TlaRecipe resolve() {
+        var recipe = resolved;
+        if (recipe == null) {
+            recipe = generator.apply(entry.sourceId());
+            resolved = recipe;
+        }
+        return recipe;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotRecipe[" + entry.sourceId() + "]";
+    }
+}
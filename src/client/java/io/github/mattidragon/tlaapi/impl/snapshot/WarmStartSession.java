@@ -0,0 +1,146 @@
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.TlaApi;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reuses the output of recipe generators from a previous load if nothing they may depend on has changed.
+ * <p>
+ * The output of every recipe generator is stored in {@code tla-api/warm-start-<viewer>.bin} in the game directory, keyed by plugin, registration order and recipe type.
+ * On the next load with the same {@link RecipeFingerprint fingerprint} the stored recipes are read from the memory-mapped file instead of running the generator,
+ * and the generator only runs for recipes whose gui is actually opened.
+ * Controlled by the {@code tla-api.warmStart} system property.
+ */
+public class WarmStartSession {
+    public static final boolean ENABLED = Boolean.getBoolean("tla-api.warmStart");
+
+    private final RecipeViewer viewer;
+    private final Path file;
+    private final byte[] fingerprint;
+    private final Map<String, List<SnapshotEntry>> snapshot;
+    private final Map<String, List<SnapshotEntry>> captured = new ConcurrentHashMap<>();
+    private final Set<String> uncacheable = ConcurrentHashMap.newKeySet();
+    private final Map<Identifier, TlaCategory> categories = new ConcurrentHashMap<>();
+    private final AtomicInteger restored = new AtomicInteger();
+    private volatile boolean changed = false;
+
+    private WarmStartSession(RecipeViewer viewer, Path file, byte[] fingerprint, Map<String, List<SnapshotEntry>> snapshot) {
+        this.viewer = viewer;
+        this.file = file;
+        this.fingerprint = fingerprint;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Returns the recipe the plugin created for a recipe restored from a snapshot, generating it if needed.
+     * Other recipes, and restored recipes that no longer exist, are returned as is.
+     * Used where plugin code may depend on the class of the recipe.
+     */
+    public static TlaRecipe unwrap(TlaRecipe recipe) {
+        if (!(recipe instanceof SnapshotRecipe restored)) return recipe;
+        var resolved = restored.resolve();
+        return resolved == null ? recipe : resolved;
+    }
+
+    /**
+     * Starts a session for a load into the given viewer, or returns null if warm starts are disabled or not possible right now.
+     */
+    public static @Nullable WarmStartSession start(RecipeViewer viewer) {
+        if (!ENABLED) return null;
+        var fingerprint = RecipeFingerprint.compute(viewer);
+        if (fingerprint == null) return null;
+
+        var file = FabricLoader.getInstance().getGameDir().resolve("tla-api").resolve("warm-start-" + viewer.id() + ".bin");
+        Map<String, List<SnapshotEntry>> snapshot = null;
+        try {
+            snapshot = SnapshotFile.read(file, fingerprint);
+        } catch (IOException e) {
+            TlaApi.LOGGER.warn("Failed to read warm start snapshot {}, regenerating", file, e);
+        }
+        return new WarmStartSession(viewer, file, fingerprint, snapshot == null ? Map.of() : snapshot);
+    }
+
+    /**
+     * Wraps the context that registrations of a single plugin are committed to.
+     * @param pluginId A stable identifier of the plugin, used to key its generators in the snapshot.
+     */
+    public PluginContext wrap(PluginContext delegate, String pluginId) {
+        return new SnapshotPluginContext(this, delegate, pluginId);
+    }
+
+    /**
+     * Rewrites the snapshot if any generator had to run.
+     */
+    public void finish() {
+        if (restored.get() > 0) {
+            TlaApi.LOGGER.info("Restored {} recipes for {} from warm start snapshot", restored.get(), viewer);
+        }
+        if (!changed) return;
+
+        var generators = new TreeMap<String, List<SnapshotEntry>>();
+        captured.forEach((key, entries) -> {
+            if (uncacheable.contains(key)) return;
+            List<SnapshotEntry> sorted;
+            synchronized (entries) {
+                sorted = new ArrayList<>(entries);
+            }
+            sorted.sort(Comparator.comparing(SnapshotEntry::sourceId));
+            generators.put(key, sorted);
+        });
+
+        try {
+            SnapshotFile.write(file, fingerprint, generators);
+        } catch (IOException e) {
+            TlaApi.LOGGER.warn("Failed to write warm start snapshot {}", file, e);
+        }
+    }
+
+    @Nullable List<SnapshotEntry> getSnapshot(String key) {
+        return snapshot.get(key);
+    }
+
+    /**
+     * Keeps snapshot entries that were reused so that they're written back if another generator changes the file.
+     */
+    void keep(String key, List<SnapshotEntry> entries) {
+        captured.put(key, entries);
+    }
+
+    /**
+     * Starts capturing the output of a generator that had to run.
+     */
+    List<SnapshotEntry> beginCapture(String key) {
+        changed = true;
+        var entries = Collections.synchronizedList(new ArrayList<SnapshotEntry>());
+        captured.put(key, entries);
+        return entries;
+    }
+
+    void markUncacheable(String key) {
+        uncacheable.add(key);
+    }
+
+    void addCategory(TlaCategory category) {
+        categories.put(category.getId(), category);
+    }
+
+    @Nullable TlaCategory getCategory(Identifier id) {
+        return categories.get(id);
+    }
+
+    void addRestored(int count) {
+        restored.addAndGet(count);
+    }
+}
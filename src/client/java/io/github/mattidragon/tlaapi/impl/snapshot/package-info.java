@@ -0,0 +1,8 @@
+/**
+ * Warm start support. Generated recipes are stored on disk together with a fingerprint of everything that could affect them,
+ * so that later sessions with identical inputs can skip running recipe generators.
+ */
+@ApiStatus.Internal
+package io.github.mattidragon.tlaapi.impl.snapshot;
+
+import org.jetbrains.annotations.ApiStatus;
@@ -0,0 +1,38 @@
+package io.github.mattidragon.tlaapi.jmh;
+
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs all benchmarks once the client has started and then closes the game.
+ * Benchmarks can be filtered with a regex in the {@code tla-api.jmh.include} system property.
+ */
+public class BenchmarkRunner implements ClientModInitializer {
+    static final Logger LOGGER = LoggerFactory.getLogger("TLA Api Benchmarks");
+
+    @Override
+    public void onInitializeClient() {
+        // Waiting for the client to start ensures that both recipe viewers are initialized
+        ClientLifecycleEvents.CLIENT_STARTED.register(client -> {
+            var options = new OptionsBuilder()
+                    .include(System.getProperty("tla-api.jmh.include", BenchmarkRunner.class.getPackageName() + "\\..*"))
+                    // A forked jvm wouldn't have fabric or the game, so everything runs inside this client
+                    .forks(0)
+                    .result("jmh-results.json")
+                    .resultFormat(ResultFormatType.JSON)
+                    .build();
+            try {
+                new Runner(options).run();
+            } catch (RunnerException e) {
+                LOGGER.error("Failed to run benchmarks", e);
+            }
+            client.scheduleStop();
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.mattidragon.tlaapi.jmh;
+
+import dev.emi.emi.api.recipe.EmiRecipe;
+import io.github.mattidragon.tlaapi.impl.emi.TlaEmiRecipe;
+import io.github.mattidragon.tlaapi.impl.emi.TlaEmiRecipeCategory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CategorySortBenchmark {
+    @Param({"100", "10000"})
+    public int recipeCount;
+
+    private List<EmiRecipe> recipes;
+    private Comparator<EmiRecipe> comparator;
+
+    @Setup
+    public void setup() {
+        var category = new SyntheticData.SyntheticCategory();
+        var emiCategory = new TlaEmiRecipeCategory(category);
+        comparator = emiCategory.getSort();
+        recipes = new ArrayList<>();
+        for (var recipe : SyntheticData.recipes(category, recipeCount)) {
+            recipes.add(new TlaEmiRecipe(recipe, emiCategory));
+        }
+        Collections.shuffle(recipes, new Random(0));
+    }
+
+    @Benchmark
+    public List<EmiRecipe> sort() {
+        var sorted = new ArrayList<>(recipes);
+        sorted.sort(comparator);
+        return sorted;
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.mattidragon.tlaapi.jmh;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import io.github.mattidragon.tlaapi.impl.emi.EmiUtils;
+import io.github.mattidragon.tlaapi.impl.rei.ReiUtil;
+import net.minecraft.fluid.Fluids;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StackConversionBenchmark {
+    private List<TlaStack> stacks;
+    private TlaIngredient ingredient;
+
+    @Setup
+    public void setup() {
+        stacks = new ArrayList<>();
+        for (var item : SyntheticData.items(15)) {
+            stacks.add(TlaStack.of(item, 4).withChance(0.25));
+        }
+        stacks.add(TlaStack.bucketOf(Fluids.WATER));
+        ingredient = TlaIngredient.ofStacks(stacks);
+    }
+
+    @Benchmark
+    public void emiStacks(Blackhole blackhole) {
+        for (var stack : stacks) {
+            blackhole.consume(EmiUtils.convertStack(stack));
+        }
+    }
+
+    @Benchmark
+    public Object emiIngredient() {
+        return EmiUtils.convertIngredient(ingredient);
+    }
+
+    @Benchmark
+    public void reiStacks(Blackhole blackhole) {
+        for (var stack : stacks) {
+            blackhole.consume(ReiUtil.convertStack(stack));
+        }
+    }
+
+    @Benchmark
+    public Object reiIngredient() {
+        return ReiUtil.convertIngredient(ingredient);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.mattidragon.tlaapi.jmh;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.impl.StackInterner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+/**
+ * Measures the heap retained by the stacks and ingredients of many recipes, which is what {@code tla-api.internStacks} is meant to reduce.
+ * The interner is configured on startup, so run the benchmark once with and once without the property and compare the {@code retainedBytes} results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StackInterningBenchmark {
+    @Param({"10000", "100000"})
+    public int recipeCount;
+
+    private SyntheticData.SyntheticCategory category;
+
+    @Setup
+    public void setup() {
+        category = new SyntheticData.SyntheticCategory();
+        BenchmarkRunner.LOGGER.info("Stack interning is {}", StackInterner.ENABLED ? "enabled" : "disabled");
+    }
+
+    @Benchmark
+    public List<TlaRecipe> createRecipes(Retained retained) {
+        var before = usedHeap();
+        var recipes = SyntheticData.recipes(category, recipeCount);
+        // The recipes are still referenced here, so everything they hold counts as retained
+        retained.retainedBytes = usedHeap() - before;
+        return recipes;
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Reported by jmh as a secondary result next to the time.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Retained {
+        public long retainedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedBytes = 0;
+        }
+    }
+}
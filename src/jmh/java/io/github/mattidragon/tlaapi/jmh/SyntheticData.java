@@ -0,0 +1,160 @@
+package io.github.mattidragon.tlaapi.jmh;
+
+import io.github.mattidragon.tlaapi.api.gui.GuiBuilder;
+import io.github.mattidragon.tlaapi.api.recipe.CategoryIcon;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.recipe.Recipe;
+import net.minecraft.recipe.RecipeEntry;
+import net.minecraft.recipe.RecipeSerializer;
+import net.minecraft.recipe.RecipeType;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Synthetic recipes, types and categories for benchmarks.
+ * None of these are registered anywhere, they only need to look like the real thing to the code being measured.
+ */
+final class SyntheticData {
+    private SyntheticData() {}
+
+    static List<Item> items(int count) {
+        return Registries.ITEM.stream().filter(item -> item != Items.AIR).limit(count).toList();
+    }
+
+    static List<RecipeType<SyntheticRecipe>> recipeTypes(int count) {
+        var types = new ArrayList<RecipeType<SyntheticRecipe>>(count);
+        for (int i = 0; i < count; i++) {
+            var name = "tla_jmh:type_" + i;
+            types.add(new RecipeType<>() {
+                @Override
+                public String toString() {
+                    return name;
+                }
+            });
+        }
+        return types;
+    }
+
+    static RecipeEntry<SyntheticRecipe> recipeEntry(RecipeType<SyntheticRecipe> type, int index) {
+        return new RecipeEntry<>(new Identifier("tla_jmh", "recipe_" + index), new SyntheticRecipe(type));
+    }
+
+    static List<TlaRecipe> recipes(TlaCategory category, int count) {
+        var items = items(64);
+        var recipes = new ArrayList<TlaRecipe>(count);
+        for (int i = 0; i < count; i++) {
+            var input = TlaIngredient.ofItems(items.subList(i % 32, i % 32 + 4));
+            var output = TlaStack.of(items.get(i % items.size()), 1 + i % 16);
+            recipes.add(new SyntheticTlaRecipe(category, new Identifier("tla_jmh", "/recipe_" + i), List.of(input), List.of(output)));
+        }
+        return recipes;
+    }
+
+    record SyntheticRecipe(RecipeType<SyntheticRecipe> type) implements Recipe<Inventory> {
+        @Override
+        public boolean matches(Inventory inventory, World world) {
+            return false;
+        }
+
+        @Override
+        public ItemStack craft(Inventory inventory, RegistryWrapper.WrapperLookup lookup) {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public boolean fits(int width, int height) {
+            return false;
+        }
+
+        @Override
+        public ItemStack getResult(RegistryWrapper.WrapperLookup registriesLookup) {
+            return ItemStack.EMPTY;
+        }
+
+        @Override
+        public RecipeSerializer<?> getSerializer() {
+            throw new UnsupportedOperationException("Synthetic recipes can't be serialized");
+        }
+
+        @Override
+        public RecipeType<?> getType() {
+            return type;
+        }
+    }
+
+    record SyntheticTlaRecipe(TlaCategory category, Identifier id, List<TlaIngredient> inputs, List<TlaStack> outputs) implements TlaRecipe {
+        @Override
+        public TlaCategory getCategory() {
+            return category;
+        }
+
+        @Override
+        public Identifier getId() {
+            return id;
+        }
+
+        @Override
+        public List<TlaIngredient> getInputs() {
+            return inputs;
+        }
+
+        @Override
+        public List<TlaStack> getOutputs() {
+            return outputs;
+        }
+
+        @Override
+        public List<TlaIngredient> getCatalysts() {
+            return List.of();
+        }
+
+        @Override
+        public void buildGui(GuiBuilder builder) {
+        }
+    }
+
+    static final class SyntheticCategory implements TlaCategory {
+        @Override
+        public Identifier getId() {
+            return new Identifier("tla_jmh", "category");
+        }
+
+        @Override
+        public int getDisplayHeight() {
+            return 40;
+        }
+
+        @Override
+        public int getDisplayWidth() {
+            return 80;
+        }
+
+        @Override
+        public CategoryIcon getIcon() {
+            return CategoryIcon.item(Items.CRAFTING_TABLE);
+        }
+
+        @Override
+        public CategoryIcon getSimpleIcon() {
+            return CategoryIcon.item(Items.CRAFTING_TABLE);
+        }
+
+        @Override
+        public Comparator<TlaRecipe> getRecipeComparator() {
+            return Comparator.comparing(TlaRecipe::getId);
+        }
+    }
+}
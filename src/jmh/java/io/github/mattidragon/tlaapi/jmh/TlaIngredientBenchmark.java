@@ -0,0 +1,54 @@
+package io.github.mattidragon.tlaapi.jmh;
+
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemConvertible;
+import net.minecraft.recipe.Ingredient;
+import net.minecraft.registry.tag.ItemTags;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TlaIngredientBenchmark {
+    @Param({"1", "9", "64"})
+    public int size;
+
+    private List<Item> items;
+    private Ingredient vanillaIngredient;
+    private TlaIngredient ingredient;
+
+    @Setup
+    public void setup() {
+        items = SyntheticData.items(size);
+        vanillaIngredient = Ingredient.ofItems(items.toArray(ItemConvertible[]::new));
+        ingredient = TlaIngredient.ofItems(items);
+    }
+
+    @Benchmark
+    public TlaIngredient ofItems() {
+        return TlaIngredient.ofItems(items);
+    }
+
+    @Benchmark
+    public TlaIngredient ofIngredient() {
+        return TlaIngredient.ofIngredient(vanillaIngredient);
+    }
+
+    @Benchmark
+    public TlaIngredient ofItemTag() {
+        return TlaIngredient.ofItemTag(ItemTags.PLANKS);
+    }
+
+    @Benchmark
+    public TlaIngredient withChance() {
+        return ingredient.withChance(0.5);
+    }
+
+    @Benchmark
+    public boolean equalIngredients() {
+        return ingredient.equals(TlaIngredient.ofItems(items));
+    }
+}
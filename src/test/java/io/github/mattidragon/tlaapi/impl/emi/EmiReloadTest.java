@@ -0,0 +1,66 @@
+package io.github.mattidragon.tlaapi.impl.emi;
+
+import dev.emi.emi.api.EmiRegistry;
+import io.github.mattidragon.tlaapi.test.TestSupport;
+import net.minecraft.recipe.RecipeManager;
+import net.minecraft.registry.DynamicRegistryManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reloads the EMI backend over and over against a registry that only counts calls,
+ * checking that every reload registers the same and that the recipes of earlier reloads are released.
+ */
+class EmiReloadTest {
+    @BeforeAll
+    static void bootstrap() {
+        TestSupport.bootstrap();
+    }
+
+    @Test
+    void reloadsRetainNothing() {
+        var plugin = new TlaApiEmiPlugin();
+        var registry = new CountingRegistry();
+        plugin.register(registry.proxy());
+        var expected = registry.calls;
+        var firstRecipe = registry.firstRecipe;
+        registry = null;
+
+        for (int i = 1; i < TestSupport.RELOADS; i++) {
+            var reloaded = new CountingRegistry();
+            plugin.register(reloaded.proxy());
+            assertEquals(expected, reloaded.calls, "Registrations changed on reload " + i);
+        }
+        TestSupport.assertCollected(firstRecipe, "A recipe of the first reload is still retained");
+    }
+
+    /**
+     * Counts the calls made to each method, only keeping a weak reference to the first added recipe.
+     */
+    private static final class CountingRegistry {
+        private final Map<String, Integer> calls = new TreeMap<>();
+        private final RecipeManager recipeManager = new RecipeManager(DynamicRegistryManager.EMPTY);
+        private WeakReference<Object> firstRecipe = new WeakReference<>(null);
+
+        private EmiRegistry proxy() {
+            return (EmiRegistry) Proxy.newProxyInstance(EmiRegistry.class.getClassLoader(), new Class<?>[]{EmiRegistry.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "getRecipeManager" -> recipeManager;
+                case "toString" -> "Counting EMI registry";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> {
+                    if (method.getName().equals("addRecipe") && firstRecipe.get() == null) firstRecipe = new WeakReference<>(args[0]);
+                    calls.merge(method.getName(), 1, Integer::sum);
+                    yield null;
+                }
+            });
+        }
+    }
+}
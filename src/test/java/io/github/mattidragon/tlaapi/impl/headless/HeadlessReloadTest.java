@@ -0,0 +1,56 @@
+package io.github.mattidragon.tlaapi.impl.headless;
+
+import io.github.mattidragon.tlaapi.api.plugin.RecipeViewer;
+import io.github.mattidragon.tlaapi.impl.TlaApi;
+import io.github.mattidragon.tlaapi.test.ReloadTestPlugin;
+import io.github.mattidragon.tlaapi.test.TestSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Loads plugins into the headless backend over and over, checking that every load registers the same
+ * and that nothing from earlier loads is kept by the shared loading code.
+ */
+class HeadlessReloadTest {
+    @BeforeAll
+    static void bootstrap() {
+        TestSupport.bootstrap();
+    }
+
+    @Test
+    void reloadsRetainNothing() {
+        var first = load();
+        var expected = summarize(first);
+        var firstRecipe = new WeakReference<>(first.getRecipes().getFirst());
+        first = null;
+
+        for (int i = 1; i < TestSupport.RELOADS; i++) {
+            assertEquals(expected, summarize(load()), "Registrations changed on reload " + i);
+        }
+        TestSupport.assertCollected(firstRecipe, "A recipe of the first load is still retained");
+    }
+
+    private static HeadlessPluginContext load() {
+        var context = new HeadlessPluginContext(RecipeViewer.EMI, List.of());
+        var session = TlaApi.loadPlugins(context);
+        session.runDerivedGenerators(null, category -> List.of(), recipe -> {});
+        session.finish();
+        return context;
+    }
+
+    private static List<Integer> summarize(HeadlessPluginContext context) {
+        var categories = context.getCategories();
+        return List.of(
+                categories.size(),
+                categories.contains(ReloadTestPlugin.CATEGORY) ? context.getWorkstations(ReloadTestPlugin.CATEGORY).size() : -1,
+                context.getRecipes().size(),
+                context.getScreenHooks().size(),
+                context.getDynamicGenerators().size()
+        );
+    }
+}
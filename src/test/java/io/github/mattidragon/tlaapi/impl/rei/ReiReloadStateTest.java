@@ -0,0 +1,54 @@
+package io.github.mattidragon.tlaapi.impl.rei;
+
+import io.github.mattidragon.tlaapi.test.TestSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reloads the REI backend over and over without REI itself, checking that the per-reload state doesn't grow
+ * and that the state of earlier reloads is released.
+ */
+class ReiReloadStateTest {
+    @BeforeAll
+    static void bootstrap() {
+        TestSupport.bootstrap();
+    }
+
+    @Test
+    void reloadsRetainNothing() {
+        var plugin = new TlaApiReiPlugin();
+        reload(plugin);
+        var expected = summarize(plugin.getState());
+        var firstState = new WeakReference<>(plugin.getState());
+
+        for (int i = 1; i < TestSupport.RELOADS; i++) {
+            reload(plugin);
+            assertEquals(expected, summarize(plugin.getState()), "Registrations changed on reload " + i);
+        }
+        TestSupport.assertCollected(firstState, "The state of the first reload is still retained");
+    }
+
+    private static void reload(TlaApiReiPlugin plugin) {
+        plugin.beginReload();
+        plugin.endReload();
+    }
+
+    private static List<Integer> summarize(ReiReloadState state) {
+        return List.of(
+                state.categories.size(),
+                state.workstations.size(),
+                state.multiRecipeGenerators.size(),
+                state.customGenerators.size(),
+                state.dynamicGenerators.size(),
+                state.stackDragHandlers.size(),
+                state.screenSizeProviders.size(),
+                state.exclusionZoneProviders.size(),
+                state.clickAreas.size()
+        );
+    }
+}
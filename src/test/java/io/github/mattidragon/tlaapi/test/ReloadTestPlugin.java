@@ -0,0 +1,104 @@
+package io.github.mattidragon.tlaapi.test;
+
+import io.github.mattidragon.tlaapi.api.gui.GuiBuilder;
+import io.github.mattidragon.tlaapi.api.gui.TlaBounds;
+import io.github.mattidragon.tlaapi.api.plugin.PluginContext;
+import io.github.mattidragon.tlaapi.api.plugin.TlaApiPlugin;
+import io.github.mattidragon.tlaapi.api.recipe.CategoryIcon;
+import io.github.mattidragon.tlaapi.api.recipe.TlaCategory;
+import io.github.mattidragon.tlaapi.api.recipe.TlaIngredient;
+import io.github.mattidragon.tlaapi.api.recipe.TlaRecipe;
+import io.github.mattidragon.tlaapi.api.recipe.TlaStack;
+import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.item.Items;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers a bit of everything on every load, creating new recipes each time.
+ * Anything a backend keeps from an earlier load shows up as growing registrations or recipes that are never collected.
+ */
+public class ReloadTestPlugin implements TlaApiPlugin {
+    public static final TlaCategory CATEGORY = new TestCategory();
+    public static final int RECIPES = 3;
+
+    @Override
+    public void register(PluginContext context) {
+        context.addCategory(CATEGORY);
+        context.addWorkstation(CATEGORY, TlaStack.of(Items.CRAFTING_TABLE).asIngredient());
+        context.addGenerator(client -> createRecipes("generated"));
+        context.addRefreshableGenerator(client -> createRecipes("refreshable"));
+        context.addScreenSizeProvider(Screen.class, screen -> new TlaBounds(0, 0, screen.width, screen.height));
+        context.addExclusionZoneProvider(Screen.class, screen -> List.of(new TlaBounds(0, 0, 16, 16)));
+    }
+
+    private static List<TlaRecipe> createRecipes(String prefix) {
+        var recipes = new ArrayList<TlaRecipe>(RECIPES);
+        for (int i = 0; i < RECIPES; i++) {
+            recipes.add(new TestRecipe(new Identifier("tlaapi_test", prefix + "_" + i)));
+        }
+        return recipes;
+    }
+
+    private static final class TestCategory implements TlaCategory {
+        @Override
+        public Identifier getId() {
+            return new Identifier("tlaapi_test", "reload");
+        }
+
+        @Override
+        public int getDisplayHeight() {
+            return 18;
+        }
+
+        @Override
+        public int getDisplayWidth() {
+            return 54;
+        }
+
+        @Override
+        public CategoryIcon getIcon() {
+            return CategoryIcon.item(Items.CRAFTING_TABLE);
+        }
+
+        @Override
+        public CategoryIcon getSimpleIcon() {
+            return CategoryIcon.item(Items.CRAFTING_TABLE);
+        }
+    }
+
+    private record TestRecipe(Identifier id) implements TlaRecipe {
+        @Override
+        public TlaCategory getCategory() {
+            return CATEGORY;
+        }
+
+        @Override
+        public Identifier getId() {
+            return id;
+        }
+
+        @Override
+        public List<TlaIngredient> getInputs() {
+            return List.of(TlaIngredient.ofStacks(TlaStack.of(Items.STICK)));
+        }
+
+        @Override
+        public List<TlaStack> getOutputs() {
+            return List.of(TlaStack.of(Items.TORCH));
+        }
+
+        @Override
+        public List<TlaIngredient> getCatalysts() {
+            return List.of();
+        }
+
+        @Override
+        public void buildGui(GuiBuilder builder) {
+            builder.addSlot(getInputs().getFirst(), 0, 0).markInput();
+            builder.addSlot(getOutputs().getFirst(), 36, 0).markOutput();
+        }
+    }
+}
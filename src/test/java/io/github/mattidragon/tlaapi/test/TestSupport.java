@@ -0,0 +1,38 @@
+package io.github.mattidragon.tlaapi.test;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+public final class TestSupport {
+    public static final int RELOADS = 10;
+
+    private TestSupport() {}
+
+    /**
+     * Bootstraps the registries, which stacks and ingredients need. Safe to call more than once.
+     */
+    public static void bootstrap() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    /**
+     * Fails unless the referenced object can be garbage collected, meaning nothing retains it anymore.
+     */
+    public static void assertCollected(WeakReference<?> reference, String message) {
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (reference.get() != null) fail(message);
+    }
+}